@@ -6,6 +6,9 @@ import me.itzrenzo.infernaltresures.commands.TreasureCommand;
 import me.itzrenzo.infernaltresures.integrations.ExecutableBlocksIntegration;
 import me.itzrenzo.infernaltresures.integrations.ExecutableItemsIntegration;
 import me.itzrenzo.infernaltresures.integrations.MMOItemsIntegration;
+import me.itzrenzo.infernaltresures.listeners.ChunkListener;
+import me.itzrenzo.infernaltresures.listeners.HologramListener;
+import me.itzrenzo.infernaltresures.listeners.InventoryListener;
 import me.itzrenzo.infernaltresures.listeners.MiningListener;
 import me.itzrenzo.infernaltresures.listeners.StatsListener;
 import me.itzrenzo.infernaltresures.managers.BlockManager;
@@ -90,6 +93,9 @@ public final class InfernalTresures extends JavaPlugin {
         
         getServer().getPluginManager().registerEvents(new MiningListener(this), this);
         getServer().getPluginManager().registerEvents(new StatsListener(this), this);
+        getServer().getPluginManager().registerEvents(new ChunkListener(this), this);
+        getServer().getPluginManager().registerEvents(new InventoryListener(this), this);
+        getServer().getPluginManager().registerEvents(new HologramListener(this), this);
         
         getCommand("treasure").setExecutor(new TreasureCommand(this));
         getCommand("lootgui").setExecutor(new TreasureCommand(this));
@@ -108,6 +114,7 @@ public final class InfernalTresures extends JavaPlugin {
         }
         
         if (configManager != null) {
+            configManager.shutdown();
             configManager.saveConfig();
         }
         
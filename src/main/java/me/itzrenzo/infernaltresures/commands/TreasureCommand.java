@@ -136,10 +136,21 @@ public class TreasureCommand implements CommandExecutor, TabCompleter {
             return;
         }
         
-        // Reload config and loot tables
-        plugin.getConfigManager().reloadConfig();
+        // Reload config now, loot tables, blocks and messages are parsed in the background
+        boolean started = plugin.getConfigManager().reloadConfigAsync(success -> {
+            if (success) {
+                sender.sendMessage(Component.text("InfernalTreasures configuration and loot tables reloaded.").color(NamedTextColor.GREEN));
+            } else {
+                sender.sendMessage(Component.text("Reload failed, the previous loot tables, blocks and messages are still in use. See the console for details.").color(NamedTextColor.RED));
+            }
+        });
+        
+        if (!started) {
+            sender.sendMessage(Component.text("A reload is already in progress.").color(NamedTextColor.RED));
+            return;
+        }
         
-        sender.sendMessage(Component.text("InfernalTreasures configuration and loot tables reloaded.").color(NamedTextColor.GREEN));
+        sender.sendMessage(Component.text("Reloading InfernalTreasures configuration and loot tables...").color(NamedTextColor.YELLOW));
     }
     
     private void handleInfoCommand(CommandSender sender) {
@@ -150,10 +161,18 @@ public class TreasureCommand implements CommandExecutor, TabCompleter {
         }
         
         int treasureCount = plugin.getTreasureManager().getActiveTreasures().size();
+        int queueDepth = plugin.getTreasureManager().getMaterializeQueueDepth();
         
         sender.sendMessage(Component.text("=== InfernalTreasures Info ===").color(NamedTextColor.GOLD));
         sender.sendMessage(Component.text("Active treasures: ").color(NamedTextColor.YELLOW)
             .append(Component.text(treasureCount).color(NamedTextColor.WHITE)));
+        sender.sendMessage(Component.text("Spawn queue: ").color(NamedTextColor.YELLOW)
+            .append(Component.text(queueDepth + " pending").color(NamedTextColor.WHITE))
+            .append(Component.text(" (oldest " + plugin.getTreasureManager().getMaterializeOldestWaitMillis() + 
+                "ms, longest wait " + plugin.getTreasureManager().getMaterializeLongestWaitMillis() + "ms)").color(NamedTextColor.GRAY)));
+        sender.sendMessage(Component.text("Persistence queue: ").color(NamedTextColor.YELLOW)
+            .append(Component.text(plugin.getStatsManager().getQueuedStorageTasks() + " stats, " +
+                plugin.getTreasureManager().getSnapshotQueueDepth() + " treasure snapshots pending").color(NamedTextColor.WHITE)));
         sender.sendMessage(Component.text("Block-specific spawn chances configured in blocks.yml").color(NamedTextColor.GRAY));
     }
     
@@ -265,6 +284,18 @@ public class TreasureCommand implements CommandExecutor, TabCompleter {
             return;
         }
 
+        // Apply the change once the stored row is loaded, so it is not merged on top of stale values
+        plugin.getStatsManager().loadPlayerStats(offlinePlayer.getUniqueId()).whenComplete((stats, throwable) -> {
+            if (throwable != null) {
+                sender.sendMessage(Component.text("Could not load statistics for '" + targetName + "', please try again shortly.")
+                    .color(NamedTextColor.RED));
+                return;
+            }
+            applyStatChange(sender, offlinePlayer, statType, value);
+        });
+    }
+    
+    private void applyStatChange(CommandSender sender, OfflinePlayer offlinePlayer, String statType, long value) {
         // Apply the stat change
         boolean success = false;
         String statDisplayName = "";
@@ -345,24 +376,30 @@ public class TreasureCommand implements CommandExecutor, TabCompleter {
     }
     
     private void displayPlayerStats(CommandSender sender, Player targetPlayer, String targetName) {
-        StatsManager.PlayerStats stats;
-        
         if (targetPlayer != null) {
             // Player is online, get current stats
-            stats = plugin.getStatsManager().getPlayerStats(targetPlayer);
-        } else {
-            // Player is offline, get stats by name lookup
-            OfflinePlayer offlinePlayer = Bukkit.getOfflinePlayer(targetName);
-            stats = plugin.getStatsManager().getPlayerStats(offlinePlayer.getUniqueId());
+            displayPlayerStats(sender, targetPlayer, targetName, plugin.getStatsManager().getPlayerStats(targetPlayer));
+            return;
         }
         
+        // Player is offline, load their stats without holding up the server
+        OfflinePlayer offlinePlayer = Bukkit.getOfflinePlayer(targetName);
+        plugin.getStatsManager().loadPlayerStats(offlinePlayer.getUniqueId()).whenComplete((stats, throwable) -> {
+            if (throwable != null) {
+                sender.sendMessage(Component.text("Could not load statistics for '" + targetName + "', please try again shortly.")
+                    .color(NamedTextColor.RED));
+                return;
+            }
+            displayPlayerStats(sender, null, targetName, stats);
+        });
+    }
+    
+    private void displayPlayerStats(CommandSender sender, Player targetPlayer, String targetName, StatsManager.PlayerStats stats) {
         // Calculate total treasures found
-        long totalTreasures = stats.commonTreasuresFound + stats.rareTreasuresFound + 
-                             stats.epicTreasuresFound + stats.legendaryTreasuresFound + 
-                             stats.mythicTreasuresFound;
+        long totalTreasures = stats.getTotalTreasuresFound();
         
         // Get playtime (including current session if online)
-        long totalMinutes = stats.minutesPlayed;
+        long totalMinutes = stats.getMinutesPlayed();
         if (targetPlayer != null && targetPlayer.isOnline()) {
             totalMinutes += plugin.getStatsManager().getCurrentSessionMinutes(targetPlayer);
         }
@@ -378,7 +415,7 @@ public class TreasureCommand implements CommandExecutor, TabCompleter {
             "stats-header", "{player}", targetName));
         
         sender.sendMessage(messageManager.getMessageComponentWithPlaceholders(
-            "stats-total-blocks-mined", "{count}", String.valueOf(stats.totalBlocksMined)));
+            "stats-total-blocks-mined", "{count}", String.valueOf(stats.getTotalBlocksMined())));
         
         sender.sendMessage(messageManager.getMessageComponentWithPlaceholders(
             "stats-total-treasures-found", "{count}", String.valueOf(totalTreasures)));
@@ -386,19 +423,19 @@ public class TreasureCommand implements CommandExecutor, TabCompleter {
         sender.sendMessage(messageManager.getMessageComponent("stats-treasure-breakdown"));
         
         sender.sendMessage(messageManager.getMessageComponentWithPlaceholders(
-            "stats-common-treasures", "{count}", String.valueOf(stats.commonTreasuresFound)));
+            "stats-common-treasures", "{count}", String.valueOf(stats.getCommonTreasuresFound())));
         
         sender.sendMessage(messageManager.getMessageComponentWithPlaceholders(
-            "stats-rare-treasures", "{count}", String.valueOf(stats.rareTreasuresFound)));
+            "stats-rare-treasures", "{count}", String.valueOf(stats.getRareTreasuresFound())));
         
         sender.sendMessage(messageManager.getMessageComponentWithPlaceholders(
-            "stats-epic-treasures", "{count}", String.valueOf(stats.epicTreasuresFound)));
+            "stats-epic-treasures", "{count}", String.valueOf(stats.getEpicTreasuresFound())));
         
         sender.sendMessage(messageManager.getMessageComponentWithPlaceholders(
-            "stats-legendary-treasures", "{count}", String.valueOf(stats.legendaryTreasuresFound)));
+            "stats-legendary-treasures", "{count}", String.valueOf(stats.getLegendaryTreasuresFound())));
         
         sender.sendMessage(messageManager.getMessageComponentWithPlaceholders(
-            "stats-mythic-treasures", "{count}", String.valueOf(stats.mythicTreasuresFound)));
+            "stats-mythic-treasures", "{count}", String.valueOf(stats.getMythicTreasuresFound())));
         
         sender.sendMessage(messageManager.getMessageComponentWithPlaceholders(
             "stats-playtime", "{hours}", String.valueOf(hours), "{minutes}", String.valueOf(minutes)));
@@ -410,7 +447,7 @@ public class TreasureCommand implements CommandExecutor, TabCompleter {
                 String luckDuration = formatDuration(remainingSeconds);
                 sender.sendMessage(messageManager.getMessageComponentWithPlaceholders(
                     "stats-active-luck", 
-                    "{multiplier}", String.format("%.1fx", stats.luckMultiplier),
+                    "{multiplier}", String.format("%.1fx", stats.getLuckMultiplier()),
                     "{duration}", luckDuration));
                 
                 // Show queued luck if it exists
@@ -419,7 +456,7 @@ public class TreasureCommand implements CommandExecutor, TabCompleter {
                     String queuedDuration = formatDuration(queuedSeconds);
                     sender.sendMessage(messageManager.getMessageComponentWithPlaceholders(
                         "stats-queued-luck",
-                        "{multiplier}", String.format("%.1fx", stats.queuedLuckMultiplier),
+                        "{multiplier}", String.format("%.1fx", stats.getQueuedLuckMultiplier()),
                         "{duration}", queuedDuration));
                 }
             } else {
@@ -430,7 +467,7 @@ public class TreasureCommand implements CommandExecutor, TabCompleter {
                     sender.sendMessage(messageManager.getMessageComponent("stats-luck-inactive"));
                     sender.sendMessage(messageManager.getMessageComponentWithPlaceholders(
                         "stats-queued-luck-soon",
-                        "{multiplier}", String.format("%.1fx", stats.queuedLuckMultiplier),
+                        "{multiplier}", String.format("%.1fx", stats.getQueuedLuckMultiplier()),
                         "{duration}", queuedDuration));
                 } else {
                     sender.sendMessage(messageManager.getMessageComponent("stats-luck-inactive"));
@@ -685,8 +722,7 @@ public class TreasureCommand implements CommandExecutor, TabCompleter {
                 }
                 
                 boolean enable = debugState.equals("on");
-                plugin.getConfig().set("treasure.loot-progression.debug", enable);
-                plugin.saveConfig();
+                plugin.getConfigManager().setProgressionDebugEnabled(enable);
                 
                 sender.sendMessage(Component.text("🔧 Progression debug logging ")
                     .color(NamedTextColor.BLUE)
@@ -777,8 +813,7 @@ public class TreasureCommand implements CommandExecutor, TabCompleter {
                 }
                 
                 boolean enable = rangeState.equals("on");
-                plugin.getConfig().set("treasure.difficulty.affect-range-requirements", enable);
-                plugin.saveConfig();
+                plugin.getConfigManager().setAffectRangeRequirements(enable);
                 
                 sender.sendMessage(Component.text("🔧 Range requirement modification ")
                     .color(NamedTextColor.BLUE)
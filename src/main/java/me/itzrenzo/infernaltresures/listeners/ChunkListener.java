@@ -0,0 +1,50 @@
+package me.itzrenzo.infernaltresures.listeners;
+
+import me.itzrenzo.infernaltresures.InfernalTresures;
+import org.bukkit.Chunk;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.server.ServerLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+public class ChunkListener implements Listener {
+    
+    private final InfernalTresures plugin;
+    
+    public ChunkListener(InfernalTresures plugin) {
+        this.plugin = plugin;
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoad(ChunkLoadEvent event) {
+        // Treasure cleanup and holograms wait for their chunk instead of loading it
+        plugin.getTreasureManager().onChunkLoad(event.getChunk());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        // Cached biomes are only trusted while their chunk stays loaded
+        Chunk chunk = event.getChunk();
+        plugin.getTreasureManager().invalidateBiomeCache(chunk.getWorld(), chunk.getX(), chunk.getZ());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldLoad(WorldLoadEvent event) {
+        // Saved treasures wait for their world, the plugin enables before worlds load at startup
+        plugin.getTreasureManager().onWorldLoad(event.getWorld());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onServerLoad(ServerLoadEvent event) {
+        plugin.getTreasureManager().onServerLoad();
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        plugin.getTreasureManager().invalidateBiomeCache(event.getWorld());
+    }
+}
@@ -0,0 +1,22 @@
+package me.itzrenzo.infernaltresures.listeners;
+
+import me.itzrenzo.infernaltresures.InfernalTresures;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+
+public class HologramListener implements Listener {
+    
+    private final InfernalTresures plugin;
+    
+    public HologramListener(InfernalTresures plugin) {
+        this.plugin = plugin;
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        // Finder-only holograms are shown per player, and that is forgotten on logout
+        plugin.getTreasureManager().onPlayerJoin(event.getPlayer());
+    }
+}
@@ -0,0 +1,42 @@
+package me.itzrenzo.infernaltresures.listeners;
+
+import me.itzrenzo.infernaltresures.InfernalTresures;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.inventory.InventoryMoveItemEvent;
+
+public class InventoryListener implements Listener {
+    
+    private final InfernalTresures plugin;
+    
+    public InventoryListener(InfernalTresures plugin) {
+        this.plugin = plugin;
+    }
+    
+    // Each handler only flags the barrel; TreasureManager recounts it on the next tick
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryClick(InventoryClickEvent event) {
+        plugin.getTreasureManager().onTreasureInventoryChanged(event.getView().getTopInventory());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryDrag(InventoryDragEvent event) {
+        plugin.getTreasureManager().onTreasureInventoryChanged(event.getView().getTopInventory());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryMoveItem(InventoryMoveItemEvent event) {
+        plugin.getTreasureManager().onTreasureInventoryChanged(event.getSource());
+        plugin.getTreasureManager().onTreasureInventoryChanged(event.getDestination());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInventoryClose(InventoryCloseEvent event) {
+        plugin.getTreasureManager().onTreasureInventoryChanged(event.getInventory());
+    }
+}
@@ -9,7 +9,6 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockBreakEvent;
-import org.bukkit.inventory.ItemStack;
 
 import me.itzrenzo.infernaltresures.InfernalTresures;
 import me.itzrenzo.infernaltresures.models.Treasure;
@@ -34,9 +33,9 @@ public class MiningListener implements Listener {
             return;
         }
         
-        // Check if this barrel is a treasure barrel with loot
-        Treasure treasure = getTreasureAtLocation(block);
-        if (treasure != null && hasTreasureLoot(block)) {
+        // Check if this barrel is a treasure barrel with loot (counter kept up to date from inventory events)
+        Treasure treasure = plugin.getTreasureManager().getTreasureAt(block);
+        if (treasure != null && treasure.hasRemainingItems()) {
             // Cancel the event to prevent breaking
             event.setCancelled(true);
             
@@ -74,44 +73,6 @@ public class MiningListener implements Listener {
         }
     }
     
-    /**
-     * Check if there's a treasure at the given block location
-     */
-    private Treasure getTreasureAtLocation(Block block) {
-        for (Treasure treasure : plugin.getTreasureManager().getActiveTreasures().values()) {
-            if (treasure.getLocation().equals(block.getLocation())) {
-                return treasure;
-            }
-        }
-        return null;
-    }
-    
-    /**
-     * Check if a treasure barrel has any loot remaining
-     */
-    private boolean hasTreasureLoot(Block block) {
-        if (block.getType() != Material.BARREL) {
-            return false;
-        }
-        
-        try {
-            if (block.getState() instanceof org.bukkit.block.Barrel barrel) {
-                org.bukkit.inventory.Inventory inventory = barrel.getInventory();
-                
-                // Check if any slot contains an item
-                for (ItemStack item : inventory.getContents()) {
-                    if (item != null && item.getType() != Material.AIR) {
-                        return true; // Found loot
-                    }
-                }
-            }
-        } catch (Exception e) {
-            plugin.getLogger().warning("Error checking treasure barrel contents: " + e.getMessage());
-        }
-        
-        return false; // No loot found or error occurred
-    }
-
     private boolean canSpawnTreasure(Player player, Block block) {
         // Ignore in creative mode
         if (player.getGameMode() == GameMode.CREATIVE) {
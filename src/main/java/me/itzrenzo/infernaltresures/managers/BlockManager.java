@@ -13,23 +13,37 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.concurrent.ThreadLocalRandom;
 
 public class BlockManager {
+    // Rarities are rolled from the highest tier down, so the rarest band sits at the bottom of the roll
+    private static final Rarity[] ROLL_ORDER = {Rarity.MYTHIC, Rarity.LEGENDARY, Rarity.EPIC, Rarity.RARE, Rarity.COMMON};
+    
     private final InfernalTresures plugin;
-    private FileConfiguration blocksConfig;
-    private final Map<Material, Map<Rarity, Double>> blockChances = new HashMap<>();
-    private boolean useBlockSpecificChances = true;
-    private double fallbackChance = 1.0;
-    private boolean debugBlockChances = false;
+    // blocks.yml and its settings, compiled together and replaced as a whole on reload
+    private volatile SpawnTable spawnTable = SpawnTable.EMPTY;
     
     public BlockManager(InfernalTresures plugin) {
         this.plugin = plugin;
     }
     
     public void loadBlocks() {
+        SpawnTable loaded = parseBlocks();
+        if (loaded == null) {
+            return;
+        }
+        
+        publish(loaded);
+        plugin.getLogger().info("Loaded " + loaded.configuredBlocks + " block configurations");
+    }
+    
+    /**
+     * Read and compile blocks.yml into a new table without touching the one in use, so it can run
+     * off the main thread. Returns null when the file cannot be created.
+     */
+    SpawnTable parseBlocks() {
         // Create blocks.yml if it doesn't exist
         File blocksFile = new File(plugin.getDataFolder(), "blocks.yml");
         if (!blocksFile.exists()) {
@@ -41,58 +55,98 @@ public class BlockManager {
                     inputStream.close();
                 } else {
                     plugin.getLogger().warning("Could not find blocks.yml in plugin jar");
-                    return;
+                    return null;
                 }
             } catch (IOException e) {
                 plugin.getLogger().severe("Failed to create blocks.yml: " + e.getMessage());
-                return;
+                return null;
             }
         }
         
         // Load the blocks configuration
-        blocksConfig = YamlConfiguration.loadConfiguration(blocksFile);
-        blockChances.clear();
+        FileConfiguration blocksConfig = YamlConfiguration.loadConfiguration(blocksFile);
+        
+        // Compile block configurations into a fresh table
+        return compileSpawnTable(blocksConfig);
+    }
+    
+    /**
+     * Make a compiled table the one in use
+     */
+    void publish(SpawnTable table) {
+        spawnTable = table;
+    }
+    
+    /**
+     * Compile the settings and blocks section into an ordinal-indexed table of cumulative spawn thresholds
+     */
+    private SpawnTable compileSpawnTable(FileConfiguration blocksConfig) {
+        int materialCount = Material.values().length;
+        double[][] thresholds = new double[materialCount][];
+        double[][] chances = new double[materialCount][];
+        int loadedBlocks = 0;
         
         // Load global settings
-        useBlockSpecificChances = blocksConfig.getBoolean("settings.use-block-specific-chances", true);
-        fallbackChance = blocksConfig.getDouble("settings.fallback-chance", 1.0);
-        debugBlockChances = blocksConfig.getBoolean("settings.debug-block-chances", false);
+        boolean useBlockSpecificChances = blocksConfig.getBoolean("settings.use-block-specific-chances", true);
+        double fallbackChance = blocksConfig.getDouble("settings.fallback-chance", 1.0);
+        boolean debugBlockChances = blocksConfig.getBoolean("settings.debug-block-chances", false);
         
-        // Load block configurations
         ConfigurationSection blocksSection = blocksConfig.getConfigurationSection("blocks");
-        if (blocksSection != null) {
-            int loadedBlocks = 0;
-            for (String blockKey : blocksSection.getKeys(false)) {
-                try {
-                    Material material = Material.valueOf(blockKey.toUpperCase());
-                    ConfigurationSection blockSection = blocksSection.getConfigurationSection(blockKey);
-                    
-                    if (blockSection != null) {
-                        ConfigurationSection chancesSection = blockSection.getConfigurationSection("spawn-chances");
-                        if (chancesSection != null) {
-                            Map<Rarity, Double> rarityChances = new HashMap<>();
-                            
-                            for (Rarity rarity : Rarity.values()) {
-                                String rarityKey = rarity.name().toLowerCase();
-                                double chance = chancesSection.getDouble(rarityKey, 0.0);
-                                rarityChances.put(rarity, chance);
-                            }
-                            
-                            blockChances.put(material, rarityChances);
-                            loadedBlocks++;
-                            
-                            if (debugBlockChances) {
-                                plugin.getLogger().info("Loaded block config for " + material + ": " + rarityChances);
-                            }
-                        }
+        if (blocksSection == null) {
+            return new SpawnTable(blocksConfig, thresholds, chances, 0, useBlockSpecificChances, fallbackChance, debugBlockChances);
+        }
+        
+        for (String blockKey : blocksSection.getKeys(false)) {
+            try {
+                Material material = Material.valueOf(blockKey.toUpperCase());
+                ConfigurationSection blockSection = blocksSection.getConfigurationSection(blockKey);
+                if (blockSection == null) {
+                    continue;
+                }
+                
+                ConfigurationSection chancesSection = blockSection.getConfigurationSection("spawn-chances");
+                if (chancesSection == null) {
+                    continue;
+                }
+                
+                // Per-rarity chances indexed by Rarity ordinal
+                double[] rarityChances = new double[Rarity.values().length];
+                for (Rarity rarity : Rarity.values()) {
+                    rarityChances[rarity.ordinal()] = Math.max(0.0, chancesSection.getDouble(rarity.name().toLowerCase(), 0.0));
+                }
+                
+                // Cumulative thresholds in roll order (mythic first)
+                double[] cumulative = new double[ROLL_ORDER.length];
+                double running = 0.0;
+                for (int i = 0; i < ROLL_ORDER.length; i++) {
+                    running += rarityChances[ROLL_ORDER[i].ordinal()];
+                    cumulative[i] = running;
+                }
+                
+                int index = material.ordinal();
+                if (thresholds[index] == null) {
+                    loadedBlocks++;
+                }
+                thresholds[index] = cumulative;
+                chances[index] = rarityChances;
+                
+                if (running > 100.0) {
+                    plugin.getLogger().warning("Spawn chances for " + material + " add up to " + running + "%, higher tiers will crowd out lower ones");
+                }
+                
+                if (debugBlockChances) {
+                    Map<Rarity, Double> debugChances = new EnumMap<>(Rarity.class);
+                    for (Rarity rarity : Rarity.values()) {
+                        debugChances.put(rarity, rarityChances[rarity.ordinal()]);
                     }
-                } catch (IllegalArgumentException e) {
-                    plugin.getLogger().warning("Invalid material in blocks.yml: " + blockKey);
+                    plugin.getLogger().info("Loaded block config for " + material + ": " + debugChances);
                 }
+            } catch (IllegalArgumentException e) {
+                plugin.getLogger().warning("Invalid material in blocks.yml: " + blockKey);
             }
-            
-            plugin.getLogger().info("Loaded " + loadedBlocks + " block configurations");
         }
+        
+        return new SpawnTable(blocksConfig, thresholds, chances, loadedBlocks, useBlockSpecificChances, fallbackChance, debugBlockChances);
     }
     
     public void reload() {
@@ -106,7 +160,9 @@ public class BlockManager {
      * @return The rarity of treasure to spawn, or null if no treasure should spawn
      */
     public Rarity shouldSpawnTreasure(Material material, Player player) {
-        if (!useBlockSpecificChances) {
+        SpawnTable table = spawnTable;
+        boolean debugBlockChances = table.debugBlockChances;
+        if (!table.useBlockSpecificChances) {
             // Fall back to global spawn chance system
             return null; // Let the existing system handle it
         }
@@ -117,15 +173,15 @@ public class BlockManager {
             luckMultiplier = plugin.getStatsManager().getLuckMultiplier(player);
         }
         
-        Map<Rarity, Double> chances = blockChances.get(material);
-        if (chances == null) {
+        double[] thresholds = table.thresholds[material.ordinal()];
+        if (thresholds == null) {
             // Block not configured, use fallback chance
             if (debugBlockChances) {
-                plugin.getLogger().info("Block " + material + " not configured, using fallback chance: " + fallbackChance + "%" +
+                plugin.getLogger().info("Block " + material + " not configured, using fallback chance: " + table.fallbackChance + "%" +
                     (luckMultiplier > 1.0 ? " (luck: " + String.format("%.1fx", luckMultiplier) + ")" : ""));
             }
             
-            double effectiveChance = fallbackChance * luckMultiplier;
+            double effectiveChance = table.fallbackChance * luckMultiplier;
             if (ThreadLocalRandom.current().nextDouble(100.0) < effectiveChance) {
                 // Use global rarity distribution
                 return plugin.getTreasureManager().getRandomRarity();
@@ -133,20 +189,19 @@ public class BlockManager {
             return null;
         }
         
-        // Check each rarity in order (starting with highest)
-        for (Rarity rarity : new Rarity[]{Rarity.MYTHIC, Rarity.LEGENDARY, Rarity.EPIC, Rarity.RARE, Rarity.COMMON}) {
-            double baseChance = chances.get(rarity);
-            double effectiveChance = baseChance * luckMultiplier;
-            double roll = ThreadLocalRandom.current().nextDouble(100.0);
-            
-            if (debugBlockChances) {
-                plugin.getLogger().info("Block " + material + " " + rarity + " check: rolled " + 
-                    String.format("%.4f", roll) + " vs " + String.format("%.4f", effectiveChance) + "%" +
-                    " (base: " + baseChance + "%" + 
-                    (luckMultiplier > 1.0 ? ", luck: " + String.format("%.1fx", luckMultiplier) + ")" : ")"));
-            }
-            
-            if (roll < effectiveChance) {
+        // Single roll against the cumulative bands, highest rarity first.
+        // Luck scales every band, which is the same as dividing the roll.
+        double roll = ThreadLocalRandom.current().nextDouble(100.0) / luckMultiplier;
+        
+        if (debugBlockChances) {
+            plugin.getLogger().info("Block " + material + " check: rolled " + String.format("%.4f", roll) +
+                " vs total " + String.format("%.4f", thresholds[thresholds.length - 1]) + "%" +
+                (luckMultiplier > 1.0 ? " (luck: " + String.format("%.1fx", luckMultiplier) + ")" : ""));
+        }
+        
+        for (int i = 0; i < thresholds.length; i++) {
+            if (roll < thresholds[i]) {
+                Rarity rarity = ROLL_ORDER[i];
                 if (debugBlockChances) {
                     plugin.getLogger().info("Block " + material + " triggered " + rarity + " treasure!" +
                         (luckMultiplier > 1.0 ? " (boosted by luck)" : ""));
@@ -169,6 +224,7 @@ public class BlockManager {
      * Get the display name for a block
      */
     public String getBlockDisplayName(Material material) {
+        FileConfiguration blocksConfig = spawnTable.blocksConfig;
         if (blocksConfig == null) {
             return formatMaterialName(material);
         }
@@ -206,31 +262,57 @@ public class BlockManager {
      * Get spawn chance for a specific block and rarity
      */
     public double getSpawnChance(Material material, Rarity rarity) {
-        Map<Rarity, Double> chances = blockChances.get(material);
+        double[] chances = spawnTable.chances[material.ordinal()];
         if (chances == null) {
             return 0.0;
         }
-        return chances.getOrDefault(rarity, 0.0);
+        return chances[rarity.ordinal()];
     }
     
     /**
      * Check if block-specific chances are enabled
      */
     public boolean isUsingBlockSpecificChances() {
-        return useBlockSpecificChances;
+        return spawnTable.useBlockSpecificChances;
     }
     
     /**
      * Get the number of configured blocks
      */
     public int getConfiguredBlockCount() {
-        return blockChances.size();
+        return spawnTable.configuredBlocks;
     }
     
     /**
      * Check if a material is configured for treasure spawning
      */
     public boolean isBlockConfigured(Material material) {
-        return blockChances.containsKey(material);
+        return spawnTable.thresholds[material.ordinal()] != null;
+    }
+    
+    /**
+     * Immutable compiled view of blocks.yml, indexed by Material ordinal
+     */
+    static final class SpawnTable {
+        static final SpawnTable EMPTY = new SpawnTable(null, new double[Material.values().length][], new double[Material.values().length][], 0, true, 1.0, false);
+        
+        final FileConfiguration blocksConfig; // Only read after publishing, for display names
+        final double[][] thresholds; // Cumulative chances in ROLL_ORDER, null when the block is not configured
+        final double[][] chances;    // Raw chances by Rarity ordinal
+        final int configuredBlocks;
+        final boolean useBlockSpecificChances;
+        final double fallbackChance;
+        final boolean debugBlockChances;
+        
+        SpawnTable(FileConfiguration blocksConfig, double[][] thresholds, double[][] chances, int configuredBlocks, 
+                   boolean useBlockSpecificChances, double fallbackChance, boolean debugBlockChances) {
+            this.blocksConfig = blocksConfig;
+            this.thresholds = thresholds;
+            this.chances = chances;
+            this.configuredBlocks = configuredBlocks;
+            this.useBlockSpecificChances = useBlockSpecificChances;
+            this.fallbackChance = fallbackChance;
+            this.debugBlockChances = debugBlockChances;
+        }
     }
 }
\ No newline at end of file
@@ -5,7 +5,18 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
+import org.bukkit.Bukkit;
+import org.bukkit.Particle;
+import org.bukkit.Sound;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 
 import me.itzrenzo.infernaltresures.InfernalTresures;
@@ -13,9 +24,15 @@ import me.itzrenzo.infernaltresures.InfernalTresures;
 public class ConfigManager {
     private final InfernalTresures plugin;
     private FileConfiguration config;
+    // Compiled hot-path settings, replaced as a whole whenever the config changes
+    private volatile Snapshot snapshot;
+    // Worker that parses loot tables, blocks and messages for /treasure reload; created on first use
+    private ExecutorService reloadExecutor;
+    private boolean reloadInProgress = false;
     
     // Default values
     private static final boolean DEFAULT_MINING_EFFECT = true;
+    private static final me.itzrenzo.infernaltresures.models.Rarity[] RARITIES = me.itzrenzo.infernaltresures.models.Rarity.values();
     
     // Biome files to copy
     private static final String[] BIOME_FILES = {
@@ -42,6 +59,8 @@ public class ConfigManager {
         
         // Save with comment preservation if any defaults were added
         saveConfigWithComments();
+        
+        compileSnapshot();
     }
     
     /**
@@ -264,6 +283,14 @@ public class ConfigManager {
             config.set("treasure.loot-progression.use-chance-based-system", false);
         }
         
+        if (!config.isSet("treasure.loot-progression.use-weighted-selection")) {
+            config.set("treasure.loot-progression.use-weighted-selection", false);
+        }
+        
+        if (!config.isSet("treasure.loot-progression.unique-items-per-barrel")) {
+            config.set("treasure.loot-progression.unique-items-per-barrel", false);
+        }
+        
         if (!config.isSet("treasure.loot-progression.debug")) {
             config.set("treasure.loot-progression.debug", true);
         }
@@ -323,35 +350,111 @@ public class ConfigManager {
     }
     
     /**
-     * Reload the config and associated loot tables
+     * Reload the config, then parse loot tables, blocks and messages on a worker thread and publish
+     * them together on the main thread. Until then the old ones stay in use, and if anything fails
+     * to parse none of them are replaced. The callback runs on the main thread with whether the new
+     * files were applied. Returns false without reloading when a reload is already running.
      */
-    public void reloadConfig() {
+    public boolean reloadConfigAsync(Consumer<Boolean> onComplete) {
+        if (reloadInProgress) {
+            return false;
+        }
+        reloadInProgress = true;
+        
+        // config.yml is small and read everywhere, so it is still swapped on the main thread first;
+        // loot parsing depends on the difficulty settings it holds
         plugin.reloadConfig();
         config = plugin.getConfig();
+        compileSnapshot();
         
-        // Also reload loot tables, messages, blocks, stats, and menus
-        reloadAssociatedManagers();
+        if (reloadExecutor == null) {
+            reloadExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "InfernalTreasures-Reload");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
         
-        plugin.getLogger().info("Configuration, loot tables, messages, blocks, stats, and menus reloaded.");
+        long started = System.nanoTime();
+        CompletableFuture.supplyAsync(this::parseReload, reloadExecutor).whenComplete((parsed, throwable) -> {
+            if (!plugin.isEnabled()) {
+                return;
+            }
+            
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                reloadInProgress = false;
+                
+                if (throwable != null) {
+                    plugin.getLogger().severe("Reload failed, keeping the previous loot tables, blocks and messages: " + throwable.getMessage());
+                    onComplete.accept(false);
+                    return;
+                }
+                if (parsed == null) {
+                    onComplete.accept(false);
+                    return;
+                }
+                
+                publishReload(parsed);
+                plugin.getLogger().info("Configuration, loot tables, messages, blocks, stats, and menus reloaded in " + 
+                    (System.nanoTime() - started) / 1_000_000 + "ms.");
+                onComplete.accept(true);
+            });
+        });
+        return true;
+    }
+    
+    /**
+     * Stop the reload worker; a reload still parsing is abandoned
+     */
+    public void shutdown() {
+        if (reloadExecutor != null) {
+            reloadExecutor.shutdownNow();
+            reloadExecutor = null;
+        }
+        reloadInProgress = false;
     }
     
     /**
-     * Reload only the associated managers without reloading the config file
-     * Used when we want to apply config changes without losing in-memory changes
+     * Parse and validate everything a reload replaces; runs on the reload worker.
+     * Item plugins are only queried once the loot tables are published on the main thread.
+     * Returns null if any part is unusable, so the reload is dropped as a whole.
      */
-    public void reloadAssociatedManagers() {
-        if (plugin.getLootManager() != null) {
-            plugin.getLootManager().reload();
+    private ParsedReload parseReload() {
+        LootManager.LootTables lootTables = plugin.getLootManager().parseLootTables();
+        if (lootTables == null) {
+            plugin.getLogger().severe("Reload failed: the biomes folder could not be read, keeping the previous loot tables, blocks and messages");
+            return null;
+        }
+        if (lootTables.getBiomeFileCount() > 0 && lootTables.getCategoryCount() == 0) {
+            plugin.getLogger().severe("Reload failed: none of the " + lootTables.getBiomeFileCount() + 
+                " biome files loaded, keeping the previous loot tables, blocks and messages");
+            return null;
         }
         
-        if (plugin.getMessageManager() != null) {
-            plugin.getMessageManager().reload();
+        BlockManager.SpawnTable spawnTable = plugin.getBlockManager().parseBlocks();
+        if (spawnTable == null) {
+            plugin.getLogger().severe("Reload failed: blocks.yml could not be read, keeping the previous loot tables, blocks and messages");
+            return null;
         }
         
-        if (plugin.getBlockManager() != null) {
-            plugin.getBlockManager().reload();
+        MessageManager.MessageSet messages = plugin.getMessageManager().parseMessages();
+        if (messages == null) {
+            plugin.getLogger().severe("Reload failed: messages.yml could not be read, keeping the previous loot tables, blocks and messages");
+            return null;
         }
         
+        return new ParsedReload(lootTables, spawnTable, messages);
+    }
+    
+    /**
+     * Swap in everything a reload parsed, then reload the managers that are cheap to reload in place.
+     * Publishing the loot tables resolves their integration items and prototypes here on the main thread.
+     */
+    private void publishReload(ParsedReload parsed) {
+        plugin.getLootManager().publish(parsed.lootTables);
+        plugin.getBlockManager().publish(parsed.spawnTable);
+        plugin.getMessageManager().publish(parsed.messages);
+        
         if (plugin.getStatsManager() != null) {
             plugin.getStatsManager().reload();
         }
@@ -359,18 +462,65 @@ public class ConfigManager {
         if (plugin.getMenuManager() != null) {
             plugin.getMenuManager().reload();
         }
+        
+        if (plugin.getLootGUIManager() != null) {
+            plugin.getLootGUIManager().invalidatePages();
+        }
     }
     
     public boolean isMiningEffectEnabled() {
-        return config.getBoolean("treasure.mining-effect", DEFAULT_MINING_EFFECT);
+        return snapshot.miningEffect;
     }
     
     public boolean isSoundEffectEnabled() {
-        return config.getBoolean("treasure.effects.sound", true);
+        return snapshot.soundEffects;
     }
     
     public boolean isParticleEffectEnabled() {
-        return config.getBoolean("treasure.effects.particles", true);
+        return snapshot.particleEffects;
+    }
+    
+    /**
+     * Whether treasure biomes are read at the player's location instead of the mined block
+     */
+    public boolean useBiomePlayerLocation() {
+        return snapshot.biomePlayerLocation;
+    }
+    
+    public boolean isBiomeCacheEnabled() {
+        return snapshot.biomeCache;
+    }
+    
+    /**
+     * Most treasure materialization steps run per tick, 0 for no limit
+     */
+    public int getMaterializeMaxStepsPerTick() {
+        return snapshot.materializeMaxSteps;
+    }
+    
+    /**
+     * Time budget for treasure materialization per tick in nanoseconds, 0 for no limit
+     */
+    public long getMaterializeBudgetNanos() {
+        return snapshot.materializeBudgetNanos;
+    }
+    
+    /**
+     * Whether active treasures are saved on shutdown and restored on start
+     */
+    public boolean isTreasurePersistenceEnabled() {
+        return snapshot.treasurePersistence;
+    }
+    
+    public int getTreasureSaveIntervalTicks() {
+        return snapshot.treasureSaveIntervalTicks;
+    }
+    
+    /**
+     * Whether marked treasure barrels that are no longer tracked are removed when their chunk loads
+     */
+    public boolean isOrphanCleanupEnabled() {
+        return snapshot.cleanOrphans;
     }
     
     public int getHourlyLimit() {
@@ -379,27 +529,34 @@ public class ConfigManager {
     
     // Hologram configuration methods
     public boolean isHologramEnabledForRarity(me.itzrenzo.infernaltresures.models.Rarity rarity) {
-        return config.getBoolean("holograms.enabled-rarities." + rarity.name().toLowerCase(), true);
+        return snapshot.hologramEnabled[rarity.ordinal()];
     }
     
     public double getHologramHeight() {
-        return config.getDouble("holograms.height", 1.5);
+        return snapshot.hologramHeight;
     }
     
     public int getHologramVisibleDistance() {
-        return config.getInt("holograms.visible-distance", 16);
+        return snapshot.hologramVisibleDistance;
+    }
+    
+    /**
+     * Whether holograms are only shown to the player who found the treasure
+     */
+    public boolean isHologramFinderOnly() {
+        return snapshot.hologramFinderOnly;
     }
     
     // Debug configuration methods
     public boolean isDebugEnabled() {
-        return config.getBoolean("debug.enabled", false);
+        return snapshot.debugEnabled;
     }
     
     public boolean isDebugCategoryEnabled(String category) {
-        if (!isDebugEnabled()) {
+        if (!snapshot.debugEnabled) {
             return false;
         }
-        return config.getBoolean("debug.categories." + category, true);
+        return snapshot.debugCategories.getOrDefault(category, true);
     }
     
     public boolean isLootGenerationDebugEnabled() {
@@ -432,14 +589,12 @@ public class ConfigManager {
     
     // Treasure announcement configuration methods
     public boolean isTreasureAnnouncementEnabled(me.itzrenzo.infernaltresures.models.Rarity rarity) {
-        return config.getBoolean("treasure.announce-finds." + rarity.name().toLowerCase(), 
-            rarity == me.itzrenzo.infernaltresures.models.Rarity.LEGENDARY || 
-            rarity == me.itzrenzo.infernaltresures.models.Rarity.MYTHIC);
+        return snapshot.announce[rarity.ordinal()];
     }
     
     // Loot progression configuration methods
     public int getCurrentProgressionLevel() {
-        return config.getInt("treasure.loot-progression.current-level", 1);
+        return snapshot.progressionLevel;
     }
     
     public void setCurrentProgressionLevel(int level) {
@@ -448,15 +603,23 @@ public class ConfigManager {
         }
         config.set("treasure.loot-progression.current-level", level);
         plugin.saveConfig();
+        compileSnapshot();
     }
     
     public int getProgressionSlots(int level) {
+        if (level >= 1 && level <= 4) {
+            return snapshot.progressionSlots[level];
+        }
+        return readProgressionSlots(level);
+    }
+    
+    private int readProgressionSlots(int level) {
         return config.getInt("treasure.loot-progression.levels." + level + ".slots", 
             level == 1 ? 7 : level == 2 ? 14 : level == 3 ? 21 : 27);
     }
     
     public int getCurrentProgressionSlots() {
-        return getProgressionSlots(getCurrentProgressionLevel());
+        return snapshot.currentProgressionSlots;
     }
     
     public String getProgressionLevelName(int level) {
@@ -470,24 +633,38 @@ public class ConfigManager {
     }
     
     public boolean isProgressionDebugEnabled() {
-        return config.getBoolean("treasure.loot-progression.debug", false);
+        return snapshot.progressionDebug;
+    }
+    
+    public void setProgressionDebugEnabled(boolean enabled) {
+        config.set("treasure.loot-progression.debug", enabled);
+        plugin.saveConfig();
+        compileSnapshot();
     }
     
     public boolean useChanceBasedSystem() {
-        return config.getBoolean("treasure.loot-progression.use-chance-based-system", false);
+        return snapshot.chanceBasedSystem;
+    }
+    
+    public boolean useWeightedSelection() {
+        return snapshot.weightedSelection;
+    }
+    
+    public boolean isUniqueItemsPerBarrel() {
+        return snapshot.uniqueItemsPerBarrel;
     }
     
     // Shulker Box loot progression configuration methods
     public boolean useShulkerBoxProgressionSystem() {
-        return config.getBoolean("treasure.loot-progression.shulker-box-loot.use-progression-system", true);
+        return snapshot.shulkerProgressionSystem;
     }
     
     public int getShulkerBoxFixedSlots() {
-        return config.getInt("treasure.loot-progression.shulker-box-loot.fixed-slots", 9);
+        return snapshot.shulkerFixedSlots;
     }
     
     public boolean useShulkerBoxChanceBasedSystem() {
-        return config.getBoolean("treasure.loot-progression.shulker-box-loot.use-chance-based-system", false);
+        return snapshot.shulkerChanceBasedSystem;
     }
     
     public int getShulkerBoxSlots() {
@@ -509,111 +686,279 @@ public class ConfigManager {
     
     // Despawn time configuration methods
     public int getDespawnTime(me.itzrenzo.infernaltresures.models.Rarity rarity) {
-        // Default despawn times if not configured
-        int defaultTime = switch (rarity) {
-            case COMMON -> 300;     // 5 minutes
-            case RARE -> 420;       // 7 minutes
-            case EPIC -> 600;       // 10 minutes
-            case LEGENDARY -> 900;  // 15 minutes
-            case MYTHIC -> 1200;    // 20 minutes
-        };
-
-        return config.getInt("rarity.despawn-times." + rarity.name().toLowerCase(), defaultTime);
+        return snapshot.despawnTime[rarity.ordinal()];
     }
     
     /**
      * Check if items should drop when barrel despawns
      */
     public boolean shouldDropItemsOnDespawn() {
-        return config.getBoolean("treasure.despawn.drop-items-on-despawn", true);
+        return snapshot.dropItemsOnDespawn;
     }
     
     // Per-rarity effect configuration methods
     public boolean isRarityEffectEnabled(me.itzrenzo.infernaltresures.models.Rarity rarity) {
-        // Check global effects first
-        if (!isSoundEffectEnabled() && !isParticleEffectEnabled()) {
-            return false;
-        }
-        
-        return config.getBoolean("treasure.rarity-effects." + rarity.name().toLowerCase() + ".enabled", true);
+        return snapshot.rarityEffectEnabled[rarity.ordinal()];
     }
     
     public String getRaritySound(me.itzrenzo.infernaltresures.models.Rarity rarity) {
+        return snapshot.raritySoundName[rarity.ordinal()];
+    }
+    
+    /**
+     * Get the parsed sound for a rarity, or null if the configured name is invalid
+     */
+    public Sound getRaritySoundEffect(me.itzrenzo.infernaltresures.models.Rarity rarity) {
+        return snapshot.raritySound[rarity.ordinal()];
+    }
+    
+    public float getRaritySoundVolume(me.itzrenzo.infernaltresures.models.Rarity rarity) {
+        return snapshot.raritySoundVolume[rarity.ordinal()];
+    }
+    
+    public float getRaritySoundPitch(me.itzrenzo.infernaltresures.models.Rarity rarity) {
+        return snapshot.raritySoundPitch[rarity.ordinal()];
+    }
+    
+    public String getRarityParticle(me.itzrenzo.infernaltresures.models.Rarity rarity) {
+        return snapshot.rarityParticleName[rarity.ordinal()];
+    }
+    
+    /**
+     * Get the parsed particle for a rarity, or null if the configured name is invalid
+     */
+    public Particle getRarityParticleEffect(me.itzrenzo.infernaltresures.models.Rarity rarity) {
+        return snapshot.rarityParticle[rarity.ordinal()];
+    }
+    
+    public int getRarityParticleCount(me.itzrenzo.infernaltresures.models.Rarity rarity) {
+        return snapshot.rarityParticleCount[rarity.ordinal()];
+    }
+    
+    public double getRarityParticleOffset(me.itzrenzo.infernaltresures.models.Rarity rarity) {
+        return snapshot.rarityParticleOffset[rarity.ordinal()];
+    }
+    
+    /**
+     * Compile the values read on hot paths into a new snapshot and publish it.
+     * Called after load, reload and every setter that changes one of them.
+     */
+    private void compileSnapshot() {
+        snapshot = new Snapshot();
+    }
+    
+    /**
+     * Immutable, typed copy of the hot-path settings; readers never touch the YAML tree.
+     * Per-rarity values are indexed by rarity ordinal.
+     */
+    private final class Snapshot {
+        private final boolean miningEffect;
+        private final boolean soundEffects;
+        private final boolean particleEffects;
+        private final boolean dropItemsOnDespawn;
+        private final int materializeMaxSteps;
+        private final long materializeBudgetNanos;
+        private final boolean treasurePersistence;
+        private final int treasureSaveIntervalTicks;
+        private final boolean cleanOrphans;
+        
+        private final boolean debugEnabled;
+        private final Map<String, Boolean> debugCategories = new HashMap<>();
+        
+        private final int progressionLevel;
+        private final int[] progressionSlots = new int[5];
+        private final int currentProgressionSlots;
+        private final boolean progressionDebug;
+        private final boolean chanceBasedSystem;
+        private final boolean weightedSelection;
+        private final boolean uniqueItemsPerBarrel;
+        private final boolean shulkerProgressionSystem;
+        private final int shulkerFixedSlots;
+        private final boolean shulkerChanceBasedSystem;
+        // Read by loot table parsing, which may run on the reload worker
+        private final double difficultyMultiplier;
+        private final boolean affectRangeRequirements;
+        
+        private final boolean useWhitelist;
+        private final Set<String> whitelist;
+        private final Set<String> blacklist;
+        
+        private final double hologramHeight;
+        private final int hologramVisibleDistance;
+        private final boolean hologramFinderOnly;
+        
+        private final boolean biomePlayerLocation;
+        private final boolean biomeCache;
+        
+        private final boolean[] hologramEnabled = new boolean[RARITIES.length];
+        private final boolean[] announce = new boolean[RARITIES.length];
+        private final int[] despawnTime = new int[RARITIES.length];
+        private final boolean[] rarityEffectEnabled = new boolean[RARITIES.length];
+        private final String[] raritySoundName = new String[RARITIES.length];
+        private final Sound[] raritySound = new Sound[RARITIES.length];
+        private final float[] raritySoundVolume = new float[RARITIES.length];
+        private final float[] raritySoundPitch = new float[RARITIES.length];
+        private final String[] rarityParticleName = new String[RARITIES.length];
+        private final Particle[] rarityParticle = new Particle[RARITIES.length];
+        private final int[] rarityParticleCount = new int[RARITIES.length];
+        private final double[] rarityParticleOffset = new double[RARITIES.length];
+        
+        private Snapshot() {
+            miningEffect = config.getBoolean("treasure.mining-effect", DEFAULT_MINING_EFFECT);
+            soundEffects = config.getBoolean("treasure.effects.sound", true);
+            particleEffects = config.getBoolean("treasure.effects.particles", true);
+            dropItemsOnDespawn = config.getBoolean("treasure.despawn.drop-items-on-despawn", true);
+            materializeMaxSteps = Math.max(0, config.getInt("treasure.materialization.max-steps-per-tick", 20));
+            materializeBudgetNanos = (long) (Math.max(0, config.getDouble("treasure.materialization.max-millis-per-tick", 2.0)) * 1_000_000L);
+            treasurePersistence = config.getBoolean("treasure.persistence.enabled", true);
+            treasureSaveIntervalTicks = Math.max(1, config.getInt("treasure.persistence.save-interval-seconds", 30)) * 20;
+            cleanOrphans = config.getBoolean("treasure.persistence.clean-orphans", true);
+            
+            debugEnabled = config.getBoolean("debug.enabled", false);
+            ConfigurationSection categories = config.getConfigurationSection("debug.categories");
+            if (categories != null) {
+                for (String category : categories.getKeys(false)) {
+                    debugCategories.put(category, categories.getBoolean(category, true));
+                }
+            }
+            
+            progressionLevel = config.getInt("treasure.loot-progression.current-level", 1);
+            for (int level = 1; level <= 4; level++) {
+                progressionSlots[level] = readProgressionSlots(level);
+            }
+            currentProgressionSlots = progressionLevel >= 1 && progressionLevel <= 4
+                ? progressionSlots[progressionLevel] : readProgressionSlots(progressionLevel);
+            progressionDebug = config.getBoolean("treasure.loot-progression.debug", false);
+            chanceBasedSystem = config.getBoolean("treasure.loot-progression.use-chance-based-system", false);
+            weightedSelection = config.getBoolean("treasure.loot-progression.use-weighted-selection", false);
+            uniqueItemsPerBarrel = config.getBoolean("treasure.loot-progression.unique-items-per-barrel", false);
+            shulkerProgressionSystem = config.getBoolean("treasure.loot-progression.shulker-box-loot.use-progression-system", true);
+            shulkerFixedSlots = config.getInt("treasure.loot-progression.shulker-box-loot.fixed-slots", 9);
+            shulkerChanceBasedSystem = config.getBoolean("treasure.loot-progression.shulker-box-loot.use-chance-based-system", false);
+            difficultyMultiplier = getCurrentDifficultyMultiplier();
+            affectRangeRequirements = shouldAffectRangeRequirements();
+            
+            useWhitelist = config.getBoolean("worlds.use-whitelist", true);
+            whitelist = Set.copyOf(config.getStringList("worlds.whitelist"));
+            blacklist = Set.copyOf(config.getStringList("worlds.blacklist"));
+            
+            hologramHeight = config.getDouble("holograms.height", 1.5);
+            hologramVisibleDistance = config.getInt("holograms.visible-distance", 16);
+            hologramFinderOnly = config.getBoolean("holograms.finder-only", false);
+            
+            biomePlayerLocation = config.getBoolean("biomes.detection.use-player-location", true);
+            biomeCache = config.getBoolean("biomes.detection.cache-biome-lookups", true);
+            
+            for (me.itzrenzo.infernaltresures.models.Rarity rarity : RARITIES) {
+                int i = rarity.ordinal();
+                String key = rarity.name().toLowerCase();
+                String effects = "treasure.rarity-effects." + key;
+                
+                hologramEnabled[i] = config.getBoolean("holograms.enabled-rarities." + key, true);
+                announce[i] = config.getBoolean("treasure.announce-finds." + key, 
+                    rarity == me.itzrenzo.infernaltresures.models.Rarity.LEGENDARY || 
+                    rarity == me.itzrenzo.infernaltresures.models.Rarity.MYTHIC);
+                despawnTime[i] = config.getInt("rarity.despawn-times." + key, defaultDespawnTime(rarity));
+                
+                // Check global effects first
+                rarityEffectEnabled[i] = (soundEffects || particleEffects) && config.getBoolean(effects + ".enabled", true);
+                
+                raritySoundName[i] = config.getString(effects + ".sound.type", defaultSound(rarity));
+                raritySoundVolume[i] = (float) config.getDouble(effects + ".sound.volume", defaultSoundVolume(rarity));
+                raritySoundPitch[i] = (float) config.getDouble(effects + ".sound.pitch", defaultSoundPitch(rarity));
+                try {
+                    raritySound[i] = Sound.valueOf(raritySoundName[i]);
+                } catch (IllegalArgumentException e) {
+                    plugin.getLogger().warning("Invalid sound for " + rarity + " rarity: " + raritySoundName[i]);
+                }
+                
+                rarityParticleName[i] = config.getString(effects + ".particles.type", defaultParticle(rarity));
+                rarityParticleCount[i] = config.getInt(effects + ".particles.count", defaultParticleCount(rarity));
+                rarityParticleOffset[i] = config.getDouble(effects + ".particles.offset", defaultParticleOffset(rarity));
+                try {
+                    rarityParticle[i] = Particle.valueOf(rarityParticleName[i]);
+                } catch (IllegalArgumentException e) {
+                    plugin.getLogger().warning("Invalid particle for " + rarity + " rarity: " + rarityParticleName[i]);
+                }
+            }
+        }
+    }
+    
+    private static int defaultDespawnTime(me.itzrenzo.infernaltresures.models.Rarity rarity) {
+        // Default despawn times if not configured
+        return switch (rarity) {
+            case COMMON -> 300;     // 5 minutes
+            case RARE -> 420;       // 7 minutes
+            case EPIC -> 600;       // 10 minutes
+            case LEGENDARY -> 900;  // 15 minutes
+            case MYTHIC -> 1200;    // 20 minutes
+        };
+    }
+    
+    private static String defaultSound(me.itzrenzo.infernaltresures.models.Rarity rarity) {
         // Default sounds for each rarity
-        String defaultSound = switch (rarity) {
+        return switch (rarity) {
             case COMMON -> "ENTITY_EXPERIENCE_ORB_PICKUP";
             case RARE -> "ENTITY_PLAYER_LEVELUP";
             case EPIC -> "ENTITY_ENDER_EYE_LAUNCH";
             case LEGENDARY -> "ENTITY_WITHER_SPAWN";
             case MYTHIC -> "ENTITY_ENDER_DRAGON_DEATH";
         };
-        
-        return config.getString("treasure.rarity-effects." + rarity.name().toLowerCase() + ".sound.type", defaultSound);
     }
     
-    public float getRaritySoundVolume(me.itzrenzo.infernaltresures.models.Rarity rarity) {
+    private static float defaultSoundVolume(me.itzrenzo.infernaltresures.models.Rarity rarity) {
         // Default volumes for each rarity
-        float defaultVolume = switch (rarity) {
+        return switch (rarity) {
             case COMMON -> 0.8f;
             case RARE -> 1.0f;
             case EPIC -> 1.2f;
             case LEGENDARY -> 1.5f;
             case MYTHIC -> 2.0f;
         };
-        
-        return (float) config.getDouble("treasure.rarity-effects." + rarity.name().toLowerCase() + ".sound.volume", defaultVolume);
     }
     
-    public float getRaritySoundPitch(me.itzrenzo.infernaltresures.models.Rarity rarity) {
+    private static float defaultSoundPitch(me.itzrenzo.infernaltresures.models.Rarity rarity) {
         // Default pitches for each rarity
-        float defaultPitch = switch (rarity) {
+        return switch (rarity) {
             case COMMON -> 1.0f;
             case RARE -> 1.2f;
             case EPIC -> 0.8f;
             case LEGENDARY -> 1.5f;
             case MYTHIC -> 0.5f;
         };
-        
-        return (float) config.getDouble("treasure.rarity-effects." + rarity.name().toLowerCase() + ".sound.pitch", defaultPitch);
     }
     
-    public String getRarityParticle(me.itzrenzo.infernaltresures.models.Rarity rarity) {
+    private static String defaultParticle(me.itzrenzo.infernaltresures.models.Rarity rarity) {
         // Default particles for each rarity
-        String defaultParticle = switch (rarity) {
+        return switch (rarity) {
             case COMMON -> "VILLAGER_HAPPY";
             case RARE -> "ENCHANTMENT_TABLE";
             case EPIC -> "PORTAL";
             case LEGENDARY -> "DRAGON_BREATH";
             case MYTHIC -> "END_ROD";
         };
-        
-        return config.getString("treasure.rarity-effects." + rarity.name().toLowerCase() + ".particles.type", defaultParticle);
     }
     
-    public int getRarityParticleCount(me.itzrenzo.infernaltresures.models.Rarity rarity) {
+    private static int defaultParticleCount(me.itzrenzo.infernaltresures.models.Rarity rarity) {
         // Default particle counts for each rarity
-        int defaultCount = switch (rarity) {
+        return switch (rarity) {
             case COMMON -> 15;
             case RARE -> 25;
             case EPIC -> 35;
             case LEGENDARY -> 50;
             case MYTHIC -> 75;
         };
-        
-        return config.getInt("treasure.rarity-effects." + rarity.name().toLowerCase() + ".particles.count", defaultCount);
     }
     
-    public double getRarityParticleOffset(me.itzrenzo.infernaltresures.models.Rarity rarity) {
+    private static double defaultParticleOffset(me.itzrenzo.infernaltresures.models.Rarity rarity) {
         // Default particle offsets for each rarity
-        double defaultOffset = switch (rarity) {
+        return switch (rarity) {
             case COMMON -> 0.5;
             case RARE -> 0.8;
             case EPIC -> 1.0;
             case LEGENDARY -> 1.2;
             case MYTHIC -> 1.5;
         };
-        
-        return config.getDouble("treasure.rarity-effects." + rarity.name().toLowerCase() + ".particles.offset", defaultOffset);
     }
     
     // Difficulty system configuration methods
@@ -649,6 +994,7 @@ public class ConfigManager {
         
         // Save with comment preservation
         saveConfigWithComments();
+        compileSnapshot();
         
         plugin.getLogger().info("Difficulty saved to config. Current value in memory: " + config.getString("treasure.difficulty.current", "NOT_SET"));
     }
@@ -657,7 +1003,7 @@ public class ConfigManager {
      * Apply difficulty multiplier to a required blocks value
      */
     public long applyDifficultyMultiplier(long originalValue) {
-        double multiplier = getCurrentDifficultyMultiplier();
+        double multiplier = snapshot.difficultyMultiplier;
         return Math.round(originalValue * multiplier);
     }
     
@@ -666,11 +1012,12 @@ public class ConfigManager {
      * Returns the modified range string or original if not applicable
      */
     public String applyDifficultyToRange(String originalRange) {
-        if (!shouldAffectRangeRequirements()) {
+        Snapshot current = snapshot;
+        if (!current.affectRangeRequirements) {
             return originalRange;
         }
         
-        double multiplier = getCurrentDifficultyMultiplier();
+        double multiplier = current.difficultyMultiplier;
         if (multiplier == 1.0) {
             return originalRange; // No change needed
         }
@@ -743,6 +1090,15 @@ public class ConfigManager {
         return config.getBoolean("treasure.difficulty.affect-range-requirements", true);
     }
     
+    /**
+     * Set whether range-type requirements are affected by difficulty
+     */
+    public void setAffectRangeRequirements(boolean affect) {
+        config.set("treasure.difficulty.affect-range-requirements", affect);
+        saveConfigWithComments();
+        compileSnapshot();
+    }
+    
     /**
      * Save config while preserving comments by doing a smart merge
      */
@@ -852,22 +1208,19 @@ public class ConfigManager {
             return false;
         }
         
-        boolean useWhitelist = config.getBoolean("worlds.use-whitelist", true);
+        Snapshot current = snapshot;
         
-        if (useWhitelist) {
+        if (current.useWhitelist) {
             // Whitelist mode - only allow treasures in whitelisted worlds
-            java.util.List<String> whitelist = config.getStringList("worlds.whitelist");
-            
             // If whitelist is empty, allow all worlds
-            if (whitelist.isEmpty()) {
+            if (current.whitelist.isEmpty()) {
                 return true;
             }
             
-            return whitelist.contains(worldName);
+            return current.whitelist.contains(worldName);
         } else {
             // Blacklist mode - allow treasures in all worlds except blacklisted ones
-            java.util.List<String> blacklist = config.getStringList("worlds.blacklist");
-            return !blacklist.contains(worldName);
+            return !current.blacklist.contains(worldName);
         }
     }
     
@@ -875,7 +1228,7 @@ public class ConfigManager {
      * Check if using whitelist mode or blacklist mode
      */
     public boolean isUsingWhitelist() {
-        return config.getBoolean("worlds.use-whitelist", true);
+        return snapshot.useWhitelist;
     }
     
     /**
@@ -905,6 +1258,7 @@ public class ConfigManager {
             whitelist.add(worldName);
             config.set("worlds.whitelist", whitelist);
             saveConfigWithComments();
+            compileSnapshot();
         }
     }
     
@@ -921,6 +1275,7 @@ public class ConfigManager {
             whitelist.remove(worldName);
             config.set("worlds.whitelist", whitelist);
             saveConfigWithComments();
+            compileSnapshot();
         }
     }
     
@@ -937,6 +1292,7 @@ public class ConfigManager {
             blacklist.add(worldName);
             config.set("worlds.blacklist", blacklist);
             saveConfigWithComments();
+            compileSnapshot();
         }
     }
     
@@ -953,6 +1309,7 @@ public class ConfigManager {
             blacklist.remove(worldName);
             config.set("worlds.blacklist", blacklist);
             saveConfigWithComments();
+            compileSnapshot();
         }
     }
     
@@ -962,5 +1319,18 @@ public class ConfigManager {
     public void setUseWhitelist(boolean useWhitelist) {
         config.set("worlds.use-whitelist", useWhitelist);
         saveConfigWithComments();
+        compileSnapshot();
+    }
+    
+    private static final class ParsedReload {
+        private final LootManager.LootTables lootTables;
+        private final BlockManager.SpawnTable spawnTable;
+        private final MessageManager.MessageSet messages;
+        
+        private ParsedReload(LootManager.LootTables lootTables, BlockManager.SpawnTable spawnTable, MessageManager.MessageSet messages) {
+            this.lootTables = lootTables;
+            this.spawnTable = spawnTable;
+            this.messages = messages;
+        }
     }
-}
\ No newline at end of file
+}
@@ -11,9 +11,6 @@ import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.block.Biome;
-import org.bukkit.configuration.ConfigurationSection;
-import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
@@ -30,6 +27,9 @@ public class LootGUIManager implements Listener {
     
     private final InfernalTresures plugin;
     private final Map<UUID, GUISession> activeSessions = new HashMap<>();
+    // Rendered loot pages, shared by every viewer and rebuilt when the loot tables or menus reload
+    private final Map<PageKey, LootPage> pageTemplates = new HashMap<>();
+    private LootView pagesView;
     
     public LootGUIManager(InfernalTresures plugin) {
         this.plugin = plugin;
@@ -42,13 +42,14 @@ public class LootGUIManager implements Listener {
         Inventory gui = Bukkit.createInventory(null, menuManager.getBiomeSelectionSize(), 
             menuManager.getBiomeSelectionTitle());
         
-        // Get all available biome categories
-        Collection<BiomeCategory> biomeCategories = plugin.getLootManager().getBiomeCategories();
+        // Get all available biome categories from the loaded loot view
+        List<LootView.CategoryView> categoryViews = plugin.getLootManager().getLootView().getCategories();
         
         int slot = 0;
-        for (BiomeCategory category : biomeCategories) {
+        for (LootView.CategoryView categoryView : categoryViews) {
             if (slot >= menuManager.getMaxLootSlots()) break; // Use configurable max slots
             
+            BiomeCategory category = categoryView.getCategory();
             String categoryFileName = category.getFileName();
             Material categoryMaterial = category.getMaterial();
             String displayName = category.getName();
@@ -101,9 +102,9 @@ public class LootGUIManager implements Listener {
         Inventory gui = Bukkit.createInventory(null, menuManager.getRaritySelectionSize(), 
             menuManager.getRaritySelectionTitle(category.getName()));
         
-        // Get available rarities for this category (check first biome as they all share the same loot table)
-        Biome representativeBiome = category.getBiomes().get(0);
-        Set<Rarity> availableRarities = getAvailableRarities(representativeBiome);
+        // Get available rarities for this category from the loaded loot view
+        LootView.CategoryView categoryView = plugin.getLootManager().getLootView().getCategory(category);
+        Set<Rarity> availableRarities = categoryView != null ? categoryView.getRarities() : Collections.emptySet();
         
         // Store slot to rarity mapping for this session
         Map<Integer, Rarity> slotToRarityMap = new HashMap<>();
@@ -118,7 +119,7 @@ public class LootGUIManager implements Listener {
             Material rarityMaterial = menuManager.getRarityMaterial(rarity);
             
             // Get loot count for this rarity
-            int lootCount = getLootCount(representativeBiome, rarity);
+            int lootCount = categoryView.getItemCount(rarity);
             
             String displayName = menuManager.getRarityDisplayName(rarity);
             List<String> lore = menuManager.getRarityLore(rarity, lootCount);
@@ -164,19 +165,67 @@ public class LootGUIManager implements Listener {
     }
     
     public void openLootGUI(Player player, BiomeCategory category, Rarity rarity) {
+        openLootGUI(player, category, rarity, 0);
+    }
+    
+    public void openLootGUI(Player player, BiomeCategory category, Rarity rarity, int page) {
         MenuManager menuManager = plugin.getMenuManager();
+        LootPage lootPage = getLootPage(category, rarity, page);
         
         Inventory gui = Bukkit.createInventory(null, menuManager.getLootDisplaySize(), 
             menuManager.getLootDisplayTitle(category.getName(), rarity.getDisplayName()));
         
-        // Get all loot items for this category and rarity (use first biome as they share the same loot table)
-        Biome representativeBiome = category.getBiomes().get(0);
-        List<LootManager.LootItemDisplay> lootItems = plugin.getLootManager().getAllLootItems(representativeBiome, rarity);
+        // setContents copies every stack into the inventory, so the shared template is never modified
+        gui.setContents(lootPage.contents);
         
-        // Fill the GUI with loot items
-        int slot = 0;
-        for (LootManager.LootItemDisplay lootDisplay : lootItems) {
-            if (slot >= menuManager.getMaxLootSlots()) break; // Leave space for navigation
+        // Store session
+        activeSessions.put(player.getUniqueId(), new LootGUISession(GUIType.LOOT_DISPLAY, null, rarity, category, 
+            lootPage.page, lootPage.pageCount));
+        
+        player.openInventory(gui);
+    }
+    
+    /**
+     * Drop every prebuilt loot page, so the next open renders them from the current menu config
+     */
+    public void invalidatePages() {
+        pageTemplates.clear();
+    }
+    
+    /**
+     * Get the prebuilt page for a category and rarity, building it on first use.
+     * The page number is clamped to the pages that exist.
+     */
+    private LootPage getLootPage(BiomeCategory category, Rarity rarity, int page) {
+        MenuManager menuManager = plugin.getMenuManager();
+        
+        // Pages belong to one load of the loot tables
+        LootView lootView = plugin.getLootManager().getLootView();
+        if (lootView != pagesView) {
+            pageTemplates.clear();
+            pagesView = lootView;
+        }
+        
+        LootView.CategoryView categoryView = lootView.getCategory(category);
+        List<LootManager.LootItemDisplay> lootItems = categoryView != null ? categoryView.getItems(rarity) : Collections.emptyList();
+        
+        int itemsPerPage = Math.max(1, menuManager.getMaxLootSlots());
+        int pageCount = Math.max(1, (lootItems.size() + itemsPerPage - 1) / itemsPerPage);
+        int clampedPage = Math.max(0, Math.min(page, pageCount - 1));
+        
+        return pageTemplates.computeIfAbsent(new PageKey(category.getFileName(), rarity, clampedPage), 
+            key -> buildLootPage(category, rarity, lootItems, clampedPage, pageCount, itemsPerPage, menuManager));
+    }
+    
+    private LootPage buildLootPage(BiomeCategory category, Rarity rarity, List<LootManager.LootItemDisplay> lootItems, 
+                                   int page, int pageCount, int itemsPerPage, MenuManager menuManager) {
+        ItemStack[] contents = new ItemStack[menuManager.getLootDisplaySize()];
+        
+        // Fill the page with its share of the loot items
+        int first = page * itemsPerPage;
+        int last = Math.min(lootItems.size(), first + itemsPerPage);
+        for (int i = first; i < last; i++) {
+            LootManager.LootItemDisplay lootDisplay = lootItems.get(i);
             
             // Clone the item and add configurable lore
             ItemStack displayItem = lootDisplay.getItemStack().clone();
@@ -196,10 +245,12 @@ public class LootGUIManager implements Listener {
                 displayItem.setItemMeta(meta);
             }
             
-            gui.setItem(slot, displayItem);
-            slot++;
+            setPageItem(contents, i - first, displayItem);
         }
         
+        String pageNumber = String.valueOf(page + 1);
+        String totalPages = String.valueOf(pageCount);
+        
         // Add navigation items using menu config
         Material backMaterial = menuManager.getNavigationMaterial("loot-display", "back");
         int backSlot = menuManager.getNavigationSlot("loot-display", "back");
@@ -210,7 +261,7 @@ public class LootGUIManager implements Listener {
             .setDisplayName(backDisplayName)
             .setLore(backLore)
             .build();
-        gui.setItem(backSlot, backItem);
+        setPageItem(contents, backSlot, backItem);
         
         // Category info item
         Material categoryInfoMaterial = category.getMaterial();
@@ -224,13 +275,15 @@ public class LootGUIManager implements Listener {
             .map(line -> line.replace("{biome_name}", category.getName()))
             .map(line -> line.replace("{rarity_display_name}", rarity.getDisplayName()))
             .map(line -> line.replace("{total_items}", String.valueOf(lootItems.size())))
+            .map(line -> line.replace("{page}", pageNumber))
+            .map(line -> line.replace("{pages}", totalPages))
             .toList();
         
         ItemStack categoryItem = new ItemBuilder(categoryInfoMaterial)
             .setDisplayName(categoryInfoDisplayName)
             .setLore(categoryInfoLore)
             .build();
-        gui.setItem(categoryInfoSlot, categoryItem);
+        setPageItem(contents, categoryInfoSlot, categoryItem);
         
         // Close button
         Material closeMaterial = menuManager.getNavigationMaterial("loot-display", "close");
@@ -242,12 +295,37 @@ public class LootGUIManager implements Listener {
             .setDisplayName(closeDisplayName)
             .setLore(closeLore)
             .build();
-        gui.setItem(closeSlot, closeItem);
+        setPageItem(contents, closeSlot, closeItem);
         
-        // Store session
-        activeSessions.put(player.getUniqueId(), new GUISession(GUIType.LOOT_DISPLAY, null, rarity, category));
+        // Page buttons, only where there is a page to go to
+        if (page > 0) {
+            setPageItem(contents, menuManager.getLootPageButtonSlot("previous-page"), 
+                createPageButton("previous-page", pageNumber, totalPages, menuManager));
+        }
+        if (page < pageCount - 1) {
+            setPageItem(contents, menuManager.getLootPageButtonSlot("next-page"), 
+                createPageButton("next-page", pageNumber, totalPages, menuManager));
+        }
         
-        player.openInventory(gui);
+        return new LootPage(contents, page, pageCount);
+    }
+    
+    private ItemStack createPageButton(String buttonType, String pageNumber, String totalPages, MenuManager menuManager) {
+        List<String> lore = menuManager.getLootPageButtonLore(buttonType).stream()
+            .map(line -> line.replace("{page}", pageNumber))
+            .map(line -> line.replace("{pages}", totalPages))
+            .toList();
+        
+        return new ItemBuilder(menuManager.getLootPageButtonMaterial(buttonType))
+            .setDisplayName(menuManager.getLootPageButtonDisplayName(buttonType))
+            .setLore(lore)
+            .build();
+    }
+    
+    private void setPageItem(ItemStack[] contents, int slot, ItemStack item) {
+        if (slot >= 0 && slot < contents.length) {
+            contents[slot] = item;
+        }
     }
     
     /**
@@ -322,79 +400,6 @@ public class LootGUIManager implements Listener {
         }
     }
     
-    private Set<Biome> getAvailableBiomes() {
-        Set<Biome> biomes = new HashSet<>();
-        File biomesFolder = new File(plugin.getDataFolder(), "biomes");
-        
-        if (!biomesFolder.exists()) return biomes;
-        
-        File[] biomeFiles = biomesFolder.listFiles((dir, name) -> name.endsWith(".yml"));
-        if (biomeFiles == null) return biomes;
-        
-        for (File biomeFile : biomeFiles) {
-            String fileName = biomeFile.getName().replace(".yml", "");
-            Biome biome = getBiomeFromFileName(fileName);
-            if (biome != null) {
-                biomes.add(biome);
-            }
-        }
-        
-        return biomes;
-    }
-    
-    private Set<Rarity> getAvailableRarities(Biome biome) {
-        Set<Rarity> rarities = new HashSet<>();
-        
-        // Instead of looking for individual biome files, use the biome category system
-        BiomeCategory category = plugin.getLootManager().getBiomeCategory(biome);
-        if (category == null) {
-            plugin.getLogger().warning("No biome category found for biome: " + biome.name());
-            return rarities;
-        }
-        
-        File biomeFile = new File(new File(plugin.getDataFolder(), "biomes"), category.getFileName() + ".yml");
-        
-        if (!biomeFile.exists()) {
-            plugin.getLogger().warning("Biome file does not exist: " + biomeFile.getPath());
-            return rarities;
-        }
-        
-        FileConfiguration config = YamlConfiguration.loadConfiguration(biomeFile);
-        ConfigurationSection lootSection = config.getConfigurationSection("loot");
-        
-        if (lootSection != null) {
-            for (Rarity rarity : Rarity.values()) {
-                if (lootSection.contains(rarity.name()) && 
-                    !lootSection.getMapList(rarity.name()).isEmpty()) {
-                    rarities.add(rarity);
-                }
-            }
-        }
-        
-        return rarities;
-    }
-    
-    private int getLootCount(Biome biome, Rarity rarity) {
-        // Use the biome category system instead of individual biome mapping
-        BiomeCategory category = plugin.getLootManager().getBiomeCategory(biome);
-        if (category == null) {
-            return 0;
-        }
-        
-        File biomeFile = new File(new File(plugin.getDataFolder(), "biomes"), category.getFileName() + ".yml");
-        
-        if (!biomeFile.exists()) return 0;
-        
-        FileConfiguration config = YamlConfiguration.loadConfiguration(biomeFile);
-        ConfigurationSection lootSection = config.getConfigurationSection("loot");
-        
-        if (lootSection != null) {
-            return lootSection.getMapList(rarity.name()).size();
-        }
-        
-        return 0;
-    }
-    
     private List<ItemStack> getLootItems(Biome biome, Rarity rarity, Player player) {
         // Use the existing LootManager to generate the loot items
         return plugin.getLootManager().generateLoot(biome, rarity, player);
@@ -545,11 +550,10 @@ public class LootGUIManager implements Listener {
         }
         
         // Find the biome category based on slot
-        Collection<BiomeCategory> biomeCategories = plugin.getLootManager().getBiomeCategories();
-        List<BiomeCategory> categoryList = new ArrayList<>(biomeCategories);
+        List<LootView.CategoryView> categoryViews = plugin.getLootManager().getLootView().getCategories();
         
-        if (slot < categoryList.size()) {
-            BiomeCategory selectedCategory = categoryList.get(slot);
+        if (slot < categoryViews.size()) {
+            BiomeCategory selectedCategory = categoryViews.get(slot).getCategory();
             openRarityGUI(player, selectedCategory);
         }
     }
@@ -571,7 +575,8 @@ public class LootGUIManager implements Listener {
             // Use the stored slot-to-rarity mapping
             Rarity selectedRarity = raritySession.slotToRarityMap.get(slot);
             
-            if (selectedRarity != null && getAvailableRarities(category.getBiomes().get(0)).contains(selectedRarity)) {
+            LootView.CategoryView categoryView = plugin.getLootManager().getLootView().getCategory(category);
+            if (selectedRarity != null && categoryView != null && categoryView.getRarities().contains(selectedRarity)) {
                 openLootGUI(player, category, selectedRarity);
             }
         }
@@ -588,6 +593,20 @@ public class LootGUIManager implements Listener {
             return;
         }
         
+        // Page buttons are matched by slot, their names are configurable
+        GUISession session = activeSessions.get(player.getUniqueId());
+        if (session instanceof LootGUISession lootSession) {
+            MenuManager menuManager = plugin.getMenuManager();
+            if (slot == menuManager.getLootPageButtonSlot("previous-page") && lootSession.page > 0) {
+                openLootGUI(player, category, rarity, lootSession.page - 1);
+                return;
+            }
+            if (slot == menuManager.getLootPageButtonSlot("next-page") && lootSession.page < lootSession.pageCount - 1) {
+                openLootGUI(player, category, rarity, lootSession.page + 1);
+                return;
+            }
+        }
+        
         // Items in the loot display are just for viewing
         // Could add additional functionality here if needed
     }
@@ -635,4 +654,54 @@ public class LootGUIManager implements Listener {
             this.slotToRarityMap = slotToRarityMap;
         }
     }
-}
\ No newline at end of file
+    
+    private static class LootGUISession extends GUISession {
+        final int page;
+        final int pageCount;
+        
+        LootGUISession(GUIType type, Biome biome, Rarity rarity, BiomeCategory category, int page, int pageCount) {
+            super(type, biome, rarity, category);
+            this.page = page;
+            this.pageCount = pageCount;
+        }
+    }
+    
+    /**
+     * A rendered loot page; its contents are copied into each viewer's inventory
+     */
+    private static final class LootPage {
+        private final ItemStack[] contents;
+        private final int page;
+        private final int pageCount;
+        
+        private LootPage(ItemStack[] contents, int page, int pageCount) {
+            this.contents = contents;
+            this.page = page;
+            this.pageCount = pageCount;
+        }
+    }
+    
+    private static final class PageKey {
+        private final String categoryFileName;
+        private final Rarity rarity;
+        private final int page;
+        
+        private PageKey(String categoryFileName, Rarity rarity, int page) {
+            this.categoryFileName = categoryFileName;
+            this.rarity = rarity;
+            this.page = page;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof PageKey other)) return false;
+            return page == other.page && rarity == other.rarity && categoryFileName.equals(other.categoryFileName);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(categoryFileName, rarity, page);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package me.itzrenzo.infernaltresures.managers;
 import me.itzrenzo.infernaltresures.InfernalTresures;
 import me.itzrenzo.infernaltresures.models.Rarity;
 import me.itzrenzo.infernaltresures.models.BiomeCategory;
+import me.itzrenzo.infernaltresures.utils.AliasTable;
 import me.itzrenzo.infernaltresures.utils.ItemBuilder;
 import org.bukkit.Material;
 import org.bukkit.attribute.Attribute;
@@ -23,9 +24,8 @@ import java.util.concurrent.ThreadLocalRandom;
 public class LootManager {
     
     private final InfernalTresures plugin;
-    private final Map<Biome, Map<Rarity, List<LootItem>>> lootTables = new HashMap<>();
-    private final Map<String, BiomeCategory> biomeCategories = new HashMap<>();
-    private final Map<Biome, BiomeCategory> biomeToCategory = new HashMap<>();
+    // Every loaded table and index, replaced as a whole on reload
+    private volatile LootTables current = LootTables.EMPTY;
     
     public LootManager(InfernalTresures plugin) {
         this.plugin = plugin;
@@ -33,32 +33,56 @@ public class LootManager {
     }
     
     private void loadLootTables() {
+        LootTables loaded = parseLootTables();
+        if (loaded != null) {
+            publish(loaded);
+        }
+    }
+    
+    /**
+     * Parse every biome file into new tables without touching the ones in use, so it can run
+     * off the main thread. Item plugins are not queried here; publish() resolves those items.
+     * Returns null when the biomes folder cannot be read.
+     */
+    LootTables parseLootTables() {
         File biomesFolder = new File(plugin.getDataFolder(), "biomes");
         
         if (!biomesFolder.exists()) {
             plugin.getLogger().warning("Biomes folder does not exist!");
-            return;
+            return null;
         }
         
         File[] biomeFiles = biomesFolder.listFiles((dir, name) -> name.endsWith(".yml"));
         if (biomeFiles == null) {
             plugin.getLogger().warning("No biome files found!");
-            return;
+            return null;
         }
         
-        // Clear existing data
-        lootTables.clear();
-        biomeCategories.clear();
-        biomeToCategory.clear();
-        
+        LootTables loaded = new LootTables(biomeFiles.length);
         for (File biomeFile : biomeFiles) {
-            loadBiomeLootTable(biomeFile);
+            loadBiomeLootTable(biomeFile, loaded);
         }
-        
-        plugin.getLogger().info("Loaded " + biomeCategories.size() + " biome categories with loot tables for " + lootTables.size() + " biomes");
+        return loaded;
     }
     
-    private void loadBiomeLootTable(File biomeFile) {
+    /**
+     * Make parsed tables the ones in use. Loot already being rolled finishes on the tables it started with.
+     * Runs on the main thread, where the tables are first resolved against the item plugins.
+     */
+    void publish(LootTables loaded) {
+        resolve(loaded);
+        current = loaded;
+        plugin.getLogger().info("Loaded " + loaded.biomeCategories.size() + " biome categories with loot tables for " + loaded.tables.size() + " biomes");
+    }
+    
+    /**
+     * Get the tables in use, to roll a spawn's loot later from the same tables it was checked against
+     */
+    public LootTables getLootTables() {
+        return current;
+    }
+    
+    private void loadBiomeLootTable(File biomeFile, LootTables target) {
         FileConfiguration config = YamlConfiguration.loadConfiguration(biomeFile);
         
         // Get category information from the config
@@ -113,11 +137,11 @@ public class LootManager {
         // Create biome category
         String fileName = biomeFile.getName().replace(".yml", "");
         BiomeCategory category = new BiomeCategory(categoryName, description, material, biomes, fileName);
-        biomeCategories.put(fileName, category);
+        target.biomeCategories.put(fileName, category);
         
         // Map each biome to this category
         for (Biome biome : biomes) {
-            biomeToCategory.put(biome, category);
+            target.biomeToCategory.put(biome, category);
         }
         
         // Load loot tables
@@ -143,34 +167,130 @@ public class LootManager {
             }
         }
         
-        // Apply the same loot table to all biomes in this category
+        // Apply the same loot table to all biomes in this category; indexes are built once it is resolved
         for (Biome biome : biomes) {
-            lootTables.put(biome, biomeLootTable);
+            target.tables.put(biome, biomeLootTable);
         }
         
         plugin.getLogger().info("Loaded biome category '" + categoryName + "' for " + biomes.size() + " biomes with " + 
             biomeLootTable.values().stream().mapToInt(List::size).sum() + " total items");
     }
     
+    /**
+     * Check parsed items against the item plugins, build item prototypes and index the tables.
+     * Item plugins are only safe to query on the main thread, so this runs when the tables are published.
+     */
+    private void resolve(LootTables loaded) {
+        // Categories share one table between their biomes, so each table is resolved once
+        Map<Map<Rarity, List<LootItem>>, Biome> resolved = new IdentityHashMap<>();
+        for (Map.Entry<Biome, Map<Rarity, List<LootItem>>> entry : loaded.tables.entrySet()) {
+            Map<Rarity, List<LootItem>> biomeLootTable = entry.getValue();
+            Biome first = resolved.putIfAbsent(biomeLootTable, entry.getKey());
+            if (first != null) {
+                loaded.availableRarities.put(entry.getKey(), loaded.availableRarities.get(first));
+                loaded.candidateIndexes.put(entry.getKey(), loaded.candidateIndexes.get(first));
+                continue;
+            }
+            
+            // Record which rarities actually have loot and index them by progression range
+            EnumSet<Rarity> nonEmptyRarities = EnumSet.noneOf(Rarity.class);
+            Map<Rarity, CandidateIndex> rarityIndexes = new EnumMap<>(Rarity.class);
+            for (Map.Entry<Rarity, List<LootItem>> rarityEntry : biomeLootTable.entrySet()) {
+                rarityEntry.getValue().removeIf(item -> !resolveLootItem(item));
+                if (!rarityEntry.getValue().isEmpty()) {
+                    nonEmptyRarities.add(rarityEntry.getKey());
+                }
+                rarityIndexes.put(rarityEntry.getKey(), CandidateIndex.build(rarityEntry.getValue()));
+            }
+            loaded.availableRarities.put(entry.getKey(), nonEmptyRarities);
+            loaded.candidateIndexes.put(entry.getKey(), rarityIndexes);
+        }
+    }
+    
+    /**
+     * Verify an integration item exists, or build the prototype of a regular item.
+     * Returns false when the item cannot be given out and should be dropped from its table.
+     */
+    private boolean resolveLootItem(LootItem item) {
+        InfernalTresures instance = InfernalTresures.getInstance();
+        if (item.isExecutableItem) {
+            // Verify ExecutableItem exists (only if ExecutableItems integration is enabled)
+            if (!instance.getExecutableItemsIntegration().isEnabled()) {
+                plugin.getLogger().warning("ExecutableItems not available, skipping ExecutableItem: " + item.executableId);
+                return false;
+            }
+            if (!instance.getExecutableItemsIntegration().isValidExecutableItem(item.executableId)) {
+                plugin.getLogger().warning("Invalid ExecutableItem: " + item.executableId);
+                return false;
+            }
+            return true;
+        }
+        if (item.isExecutableBlock) {
+            // Verify ExecutableBlock exists (only if ExecutableBlocks integration is enabled)
+            if (!instance.getExecutableBlocksIntegration().isEnabled()) {
+                plugin.getLogger().warning("ExecutableBlocks not available, skipping ExecutableBlock: " + item.executableBlockId);
+                return false;
+            }
+            if (!instance.getExecutableBlocksIntegration().isValidExecutableBlock(item.executableBlockId)) {
+                plugin.getLogger().warning("Invalid ExecutableBlock: " + item.executableBlockId);
+                return false;
+            }
+            return true;
+        }
+        if (item.isMMOItem) {
+            // Verify MMOItem exists (only if MMOItems integration is enabled)
+            if (!instance.getMMOItemsIntegration().isEnabled()) {
+                plugin.getLogger().warning("MMOItems not available, skipping MMOItem: " + item.mmoType + "." + item.mmoId);
+                return false;
+            }
+            if (!instance.getMMOItemsIntegration().isValidMMOItem(item.mmoType, item.mmoId)) {
+                plugin.getLogger().warning("Invalid MMOItem: " + item.mmoType + "." + item.mmoId);
+                return false;
+            }
+            return true;
+        }
+        
+        // Regular items are built once here; each roll only clones the prototype
+        if (!item.isShulkerBox) {
+            buildPrototype(item);
+        }
+        return true;
+    }
+    
     /**
      * Get the biome category for a given biome
      */
     public BiomeCategory getBiomeCategory(Biome biome) {
-        return biomeToCategory.get(biome);
+        return current.biomeToCategory.get(biome);
+    }
+    
+    /**
+     * Check if a biome has at least one loot entry for the given rarity
+     */
+    public boolean hasLoot(Biome biome, Rarity rarity) {
+        return hasLoot(current, biome, rarity);
+    }
+    
+    /**
+     * Check if a biome has at least one loot entry for the given rarity in the given tables
+     */
+    public boolean hasLoot(LootTables lootTables, Biome biome, Rarity rarity) {
+        EnumSet<Rarity> rarities = lootTables.availableRarities.get(biome);
+        return rarities != null && rarities.contains(rarity);
     }
     
     /**
      * Get all biome categories
      */
     public Collection<BiomeCategory> getBiomeCategories() {
-        return biomeCategories.values();
+        return current.biomeCategories.values();
     }
     
     /**
      * Get biome category by file name
      */
     public BiomeCategory getBiomeCategoryByFileName(String fileName) {
-        return biomeCategories.get(fileName);
+        return current.biomeCategories.get(fileName);
     }
     
     /**
@@ -202,60 +322,27 @@ public class LootManager {
             String executableId = (String) itemMap.get("executable_id");
             
             if (executableId != null) {
-                // This is an ExecutableItem
+                // This is an ExecutableItem, checked against ExecutableItems when the tables are published
                 item.isExecutableItem = true;
                 item.executableId = executableId;
-                
-                // Verify ExecutableItem exists (only if ExecutableItems integration is enabled)
-                if (InfernalTresures.getInstance().getExecutableItemsIntegration().isEnabled()) {
-                    if (!InfernalTresures.getInstance().getExecutableItemsIntegration().isValidExecutableItem(executableId)) {
-                        plugin.getLogger().warning("Invalid ExecutableItem: " + executableId);
-                        return null;
-                    }
-                } else {
-                    plugin.getLogger().warning("ExecutableItems not available, skipping ExecutableItem: " + executableId);
-                    return null;
-                }
             } else {
                 // Check if this is an ExecutableBlock
                 String executableBlockId = (String) itemMap.get("executable_block_id");
                 
                 if (executableBlockId != null) {
-                    // This is an ExecutableBlock
+                    // This is an ExecutableBlock, checked against ExecutableBlocks when the tables are published
                     item.isExecutableBlock = true;
                     item.executableBlockId = executableBlockId;
-                    
-                    // Verify ExecutableBlock exists (only if ExecutableBlocks integration is enabled)
-                    if (InfernalTresures.getInstance().getExecutableBlocksIntegration().isEnabled()) {
-                        if (!InfernalTresures.getInstance().getExecutableBlocksIntegration().isValidExecutableBlock(executableBlockId)) {
-                            plugin.getLogger().warning("Invalid ExecutableBlock: " + executableBlockId);
-                            return null;
-                        }
-                    } else {
-                        plugin.getLogger().warning("ExecutableBlocks not available, skipping ExecutableBlock: " + executableBlockId);
-                        return null;
-                    }
                 } else {
                     // Check if this is an MMOItem
                     String mmoType = (String) itemMap.get("mmo_type");
                     String mmoId = (String) itemMap.get("mmo_id");
                     
                     if (mmoType != null && mmoId != null) {
-                        // This is an MMOItem
+                        // This is an MMOItem, checked against MMOItems when the tables are published
                         item.isMMOItem = true;
                         item.mmoType = mmoType;
                         item.mmoId = mmoId;
-                        
-                        // Verify MMOItem exists (only if MMOItems integration is enabled)
-                        if (InfernalTresures.getInstance().getMMOItemsIntegration().isEnabled()) {
-                            if (!InfernalTresures.getInstance().getMMOItemsIntegration().isValidMMOItem(mmoType, mmoId)) {
-                                plugin.getLogger().warning("Invalid MMOItem: " + mmoType + "." + mmoId);
-                                return null;
-                            }
-                        } else {
-                            plugin.getLogger().warning("MMOItems not available, skipping MMOItem: " + mmoType + "." + mmoId);
-                            return null;
-                        }
                     } else {
                         // Regular Bukkit material
                         String materialName = (String) itemMap.get("material");
@@ -565,9 +652,13 @@ public class LootManager {
     }
     
     public List<ItemStack> generateLoot(Biome biome, Rarity rarity, org.bukkit.entity.Player player) {
+        return generateLoot(current, biome, rarity, player);
+    }
+    
+    public List<ItemStack> generateLoot(LootTables lootTables, Biome biome, Rarity rarity, org.bukkit.entity.Player player) {
         List<ItemStack> loot = new ArrayList<>();
         
-        Map<Rarity, List<LootItem>> biomeLootTable = lootTables.get(biome);
+        Map<Rarity, List<LootItem>> biomeLootTable = lootTables.tables.get(biome);
         if (biomeLootTable == null) {
             plugin.getLogger().warning("No loot table found for biome: " + biome.name());
             return loot;
@@ -585,7 +676,7 @@ public class LootManager {
         if (player != null) {
             playerUUID = player.getUniqueId();
             // Use UUID to get stats to ensure we get the most current data
-            playerBlocksMined = plugin.getStatsManager().getPlayerStats(playerUUID).totalBlocksMined;
+            playerBlocksMined = plugin.getStatsManager().getPlayerStats(playerUUID).getTotalBlocksMined();
         }
         
         // Get current progression level and slot count
@@ -600,33 +691,38 @@ public class LootManager {
             plugin.getLogger().info("Available loot items for " + rarity + ": " + rarityLoot.size());
         }
         
-        // Filter items based on progression requirements
-        List<LootItem> availableItems = new ArrayList<>();
-        for (LootItem lootItem : rarityLoot) {
-            // Check if player is within the required blocks mined range
-            if (playerBlocksMined < lootItem.minRequiredBlocksMined || playerBlocksMined > lootItem.maxRequiredBlocksMined) {
-                if (plugin.getConfigManager().isProgressionDebugEnabled()) {
+        // Items whose progression range contains the player's blocks mined, looked up from the index
+        Candidates candidates = lootTables.candidateIndexes.get(biome).get(rarity).candidatesFor(playerBlocksMined);
+        LootItem[] availableItems = candidates.items;
+        
+        if (plugin.getConfigManager().isProgressionDebugEnabled()) {
+            for (LootItem lootItem : rarityLoot) {
+                if (playerBlocksMined < lootItem.minRequiredBlocksMined || playerBlocksMined > lootItem.maxRequiredBlocksMined) {
                     plugin.getLogger().info("Player " + (player != null ? player.getName() : "unknown") + 
                         " doesn't meet progression requirement: " + playerBlocksMined + " blocks mined not in range " + 
                         lootItem.requiredBlocksMinedRange + " for item " + (lootItem.material != null ? lootItem.material.name() : 
                         lootItem.isMMOItem ? lootItem.mmoType + "." + lootItem.mmoId : lootItem.executableId));
                 }
-                continue; // Skip this item
             }
-            availableItems.add(lootItem);
         }
         
-        if (availableItems.isEmpty()) {
+        if (availableItems.length == 0) {
             if (plugin.getConfigManager().isProgressionDebugEnabled()) {
                 plugin.getLogger().info("No available items after progression filtering");
             }
             return loot;
         }
         
+        // Weighted mode: one alias-table draw per slot, no rejected rolls
+        if (plugin.getConfigManager().useWeightedSelection()) {
+            addWeightedLoot(loot, candidates, maxSlots, player);
+            return loot;
+        }
+        
         // Roll for each slot
         for (int slot = 0; slot < maxSlots; slot++) {
             // Randomly select an item from available items
-            LootItem selectedItem = availableItems.get(ThreadLocalRandom.current().nextInt(availableItems.size()));
+            LootItem selectedItem = availableItems[ThreadLocalRandom.current().nextInt(availableItems.length)];
             
             // Check if we should use chance-based system or guarantee fills
             boolean useChanceSystem = plugin.getConfigManager().useChanceBasedSystem();
@@ -671,9 +767,16 @@ public class LootManager {
      * Generate loot for a player using their UUID (works even if player is offline)
      */
     public List<ItemStack> generateLootByUUID(Biome biome, Rarity rarity, UUID playerUUID) {
+        return generateLootByUUID(current, biome, rarity, playerUUID);
+    }
+    
+    /**
+     * Generate loot for a player using their UUID from the given tables
+     */
+    public List<ItemStack> generateLootByUUID(LootTables lootTables, Biome biome, Rarity rarity, UUID playerUUID) {
         List<ItemStack> loot = new ArrayList<>();
         
-        Map<Rarity, List<LootItem>> biomeLootTable = lootTables.get(biome);
+        Map<Rarity, List<LootItem>> biomeLootTable = lootTables.tables.get(biome);
         if (biomeLootTable == null) {
             plugin.getLogger().warning("No loot table found for biome: " + biome.name());
             return loot;
@@ -688,7 +791,7 @@ public class LootManager {
         // Get player's total blocks mined for progression check using UUID
         long playerBlocksMined = 0;
         if (playerUUID != null) {
-            playerBlocksMined = plugin.getStatsManager().getPlayerStats(playerUUID).totalBlocksMined;
+            playerBlocksMined = plugin.getStatsManager().getPlayerStats(playerUUID).getTotalBlocksMined();
         }
         
         // Get current progression level and slot count
@@ -703,33 +806,38 @@ public class LootManager {
             plugin.getLogger().info("Available loot items for " + rarity + ": " + rarityLoot.size());
         }
         
-        // Filter items based on progression requirements
-        List<LootItem> availableItems = new ArrayList<>();
-        for (LootItem lootItem : rarityLoot) {
-            // Check if player is within the required blocks mined range
-            if (playerBlocksMined < lootItem.minRequiredBlocksMined || playerBlocksMined > lootItem.maxRequiredBlocksMined) {
-                if (plugin.getConfigManager().isProgressionDebugEnabled()) {
+        // Items whose progression range contains the player's blocks mined, looked up from the index
+        Candidates candidates = lootTables.candidateIndexes.get(biome).get(rarity).candidatesFor(playerBlocksMined);
+        LootItem[] availableItems = candidates.items;
+        
+        if (plugin.getConfigManager().isProgressionDebugEnabled()) {
+            for (LootItem lootItem : rarityLoot) {
+                if (playerBlocksMined < lootItem.minRequiredBlocksMined || playerBlocksMined > lootItem.maxRequiredBlocksMined) {
                     plugin.getLogger().info("Player " + playerUUID + 
                         " doesn't meet progression requirement: " + playerBlocksMined + " blocks mined not in range " + 
                         lootItem.requiredBlocksMinedRange + " for item " + (lootItem.material != null ? lootItem.material.name() : 
                         lootItem.isMMOItem ? lootItem.mmoType + "." + lootItem.mmoId : lootItem.executableId));
                 }
-                continue; // Skip this item
             }
-            availableItems.add(lootItem);
         }
         
-        if (availableItems.isEmpty()) {
+        if (availableItems.length == 0) {
             if (plugin.getConfigManager().isProgressionDebugEnabled()) {
                 plugin.getLogger().info("No available items after progression filtering");
             }
             return loot;
         }
         
+        // Weighted mode: one alias-table draw per slot, no rejected rolls
+        if (plugin.getConfigManager().useWeightedSelection()) {
+            addWeightedLoot(loot, candidates, maxSlots, null);
+            return loot;
+        }
+        
         // Roll for each slot
         for (int slot = 0; slot < maxSlots; slot++) {
             // Randomly select an item from available items
-            LootItem selectedItem = availableItems.get(ThreadLocalRandom.current().nextInt(availableItems.size()));
+            LootItem selectedItem = availableItems[ThreadLocalRandom.current().nextInt(availableItems.length)];
             
             // Check if we should use chance-based system or guarantee fills
             boolean useChanceSystem = plugin.getConfigManager().useChanceBasedSystem();
@@ -770,6 +878,65 @@ public class LootManager {
         return loot;
     }
     
+    /**
+     * Fill slots with weighted draws, where each item's chance is its relative weight
+     */
+    private void addWeightedLoot(List<ItemStack> loot, Candidates candidates, int maxSlots, org.bukkit.entity.Player player) {
+        boolean unique = plugin.getConfigManager().isUniqueItemsPerBarrel();
+        List<LootItem> picks = candidates.drawWeighted(maxSlots, unique);
+        
+        int slot = 0;
+        for (LootItem selectedItem : picks) {
+            slot++;
+            ItemStack itemStack = createItemStack(selectedItem, player);
+            if (itemStack != null) {
+                loot.add(itemStack);
+                
+                if (plugin.getConfigManager().isProgressionDebugEnabled()) {
+                    plugin.getLogger().info("Slot " + slot + ": Added " + itemStack.getType() + 
+                        " x" + itemStack.getAmount() + " (weight: " + selectedItem.chance + ")");
+                }
+            } else if (plugin.getConfigManager().isProgressionDebugEnabled()) {
+                plugin.getLogger().info("Slot " + slot + ": Failed to create item");
+            }
+        }
+        
+        if (plugin.getConfigManager().isProgressionDebugEnabled()) {
+            plugin.getLogger().info("Final loot count: " + loot.size() + "/" + maxSlots + " slots filled (weighted" + 
+                (unique ? ", unique" : "") + ")");
+            plugin.getLogger().info("=== END LOOT PROGRESSION DEBUG ===");
+        }
+    }
+    
+    /**
+     * Build the GUI view of the given tables, display stacks included
+     */
+    private LootView buildLootView(LootTables lootTables) {
+        List<LootView.CategoryView> categories = new ArrayList<>();
+        for (BiomeCategory category : lootTables.biomeCategories.values()) {
+            Map<Rarity, List<LootItem>> biomeLootTable = lootTables.tables.get(category.getBiomes().get(0));
+            Map<Rarity, List<LootItemDisplay>> items = new EnumMap<>(Rarity.class);
+            for (Rarity rarity : Rarity.values()) {
+                List<LootItem> rarityLoot = biomeLootTable != null ? biomeLootTable.get(rarity) : null;
+                items.put(rarity, rarityLoot != null ? createDisplayItems(rarityLoot) : Collections.emptyList());
+            }
+            categories.add(new LootView.CategoryView(category, items));
+        }
+        return new LootView(categories);
+    }
+    
+    /**
+     * Get the read-only loot GUI view of the current tables. It is built on the main thread the first
+     * time it is asked for, since display stacks for plugin items come from those plugins.
+     */
+    public LootView getLootView() {
+        LootTables lootTables = current;
+        if (lootTables.lootView == null) {
+            lootTables.lootView = buildLootView(lootTables);
+        }
+        return lootTables.lootView;
+    }
+    
     /**
      * Get all possible loot items for display in GUI (without applying chances or random amounts)
      */
@@ -782,11 +949,11 @@ public class LootManager {
             plugin.getLogger().info("Requested rarity: " + rarity.name());
         }
         
-        Map<Rarity, List<LootItem>> biomeLootTable = lootTables.get(biome);
+        Map<Rarity, List<LootItem>> biomeLootTable = current.tables.get(biome);
         if (biomeLootTable == null) {
             plugin.getLogger().warning("No loot table found for biome: " + biome.name());
             if (plugin.getConfigManager().isLootGenerationDebugEnabled()) {
-                plugin.getLogger().info("Available biomes in loot tables: " + lootTables.keySet());
+                plugin.getLogger().info("Available biomes in loot tables: " + current.tables.keySet());
             }
             return displayItems;
         }
@@ -807,6 +974,19 @@ public class LootManager {
             plugin.getLogger().info("Found " + rarityLoot.size() + " loot items for " + rarity + " in " + biome.name());
         }
         
+        displayItems = createDisplayItems(rarityLoot);
+        
+        if (plugin.getConfigManager().isLootGenerationDebugEnabled()) {
+            plugin.getLogger().info("Final display items count: " + displayItems.size());
+            plugin.getLogger().info("=== END GUI LOOT LOADING DEBUG ===");
+        }
+        
+        return displayItems;
+    }
+    
+    private List<LootItemDisplay> createDisplayItems(List<LootItem> rarityLoot) {
+        List<LootItemDisplay> displayItems = new ArrayList<>();
+        
         // Create display items for each loot item
         for (LootItem lootItem : rarityLoot) {
             ItemStack itemStack = createDisplayItemStack(lootItem);
@@ -832,11 +1012,6 @@ public class LootManager {
             }
         }
         
-        if (plugin.getConfigManager().isLootGenerationDebugEnabled()) {
-            plugin.getLogger().info("Final display items count: " + displayItems.size());
-            plugin.getLogger().info("=== END GUI LOOT LOADING DEBUG ===");
-        }
-        
         return displayItems;
     }
     
@@ -1012,75 +1187,28 @@ public class LootManager {
                 }
             }
             
-            // Regular Bukkit item handling
-            ItemBuilder builder = new ItemBuilder(lootItem.material, amount);
-            
-            // Set display name
-            if (lootItem.displayName != null) {
-                builder.setDisplayName(lootItem.displayName);
-            }
+            // Regular Bukkit items: clone the prototype and apply only the randomized parts
+            ItemStack itemStack = lootItem.prototype.clone();
+            itemStack.setAmount(amount);
             
-            // Set lore
-            if (lootItem.lore != null && !lootItem.lore.isEmpty()) {
-                builder.setLore(lootItem.lore);
-            }
-            
-            // Set unbreakable
-            if (lootItem.unbreakable) {
-                builder.setUnbreakable(true);
-            }
-            
-            // Set custom model data
-            if (lootItem.customModelData > -1) {
-                builder.setCustomModelData(lootItem.customModelData);
-            }
-            
-            // Add enchantments with random levels
-            if (lootItem.enchantments != null) {
-                for (EnchantmentData enchantData : lootItem.enchantments) {
-                    if ("RANDOM".equalsIgnoreCase(enchantData.enchantment)) {
-                        builder.addRandomEnchantment(enchantData.minLevel, enchantData.maxLevel);
-                    } else {
-                        Enchantment enchantment = ItemBuilder.getEnchantmentByName(enchantData.enchantment);
-                        if (enchantment != null) {
-                            int level = enchantData.level;
-                            
-                            // If min/max levels are specified, use random level between them
-                            if (enchantData.maxLevel > enchantData.minLevel) {
-                                level = ThreadLocalRandom.current().nextInt(enchantData.minLevel, enchantData.maxLevel + 1);
-                            } else if (enchantData.minLevel > 0) {
-                                level = enchantData.minLevel;
-                            }
-                            
-                            builder.addEnchantment(enchantment, level);
+            if (!lootItem.rolledEnchantments.isEmpty()) {
+                org.bukkit.inventory.meta.ItemMeta meta = itemStack.getItemMeta();
+                for (RolledEnchantment rolled : lootItem.rolledEnchantments) {
+                    Enchantment enchantment = rolled.enchantment;
+                    if (enchantment == null) {
+                        // RANDOM picks from the enchantments that fit this material
+                        if (lootItem.randomEnchantPool.isEmpty()) {
+                            continue;
                         }
+                        enchantment = lootItem.randomEnchantPool.get(ThreadLocalRandom.current().nextInt(lootItem.randomEnchantPool.size()));
                     }
+                    int level = ThreadLocalRandom.current().nextInt(rolled.minLevel, rolled.maxLevel + 1);
+                    meta.addEnchant(enchantment, level, true); // Allow unsafe enchantments
                 }
+                itemStack.setItemMeta(meta);
             }
             
-            // Add attributes
-            if (lootItem.attributes != null) {
-                for (AttributeData attributeData : lootItem.attributes) {
-                    Attribute attribute = ItemBuilder.getAttributeByName(attributeData.attribute);
-                    if (attribute != null) {
-                        AttributeModifier.Operation operation = ItemBuilder.getOperationByName(attributeData.operation);
-                        EquipmentSlot slot = getEquipmentSlot(attributeData.slot);
-                        builder.addAttribute(attribute, attributeData.value, operation, slot);
-                    }
-                }
-            }
-            
-            // Add custom effects (for consumables)
-            if (lootItem.customEffects != null) {
-                for (CustomEffectData effectData : lootItem.customEffects) {
-                    PotionEffectType effectType = ItemBuilder.getPotionEffectByName(effectData.effect);
-                    if (effectType != null) {
-                        builder.addPotionEffect(effectType, effectData.duration, effectData.amplifier);
-                    }
-                }
-            }
-            
-            return builder.build();
+            return itemStack;
             
         } catch (Exception e) {
             plugin.getLogger().warning("Failed to create ItemStack: " + e.getMessage());
@@ -1221,7 +1349,7 @@ public class LootManager {
                     List<ShulkerBoxItem> availableShulkerItems = new ArrayList<>();
                     long playerBlocksMined = 0;
                     if (player != null) {
-                        playerBlocksMined = plugin.getStatsManager().getPlayerStats(player.getUniqueId()).totalBlocksMined;
+                        playerBlocksMined = plugin.getStatsManager().getPlayerStats(player.getUniqueId()).getTotalBlocksMined();
                     }
                     
                     for (ShulkerBoxItem shulkerItem : lootItem.shulkerBoxItems) {
@@ -1455,6 +1583,92 @@ public class LootManager {
         }
     }
     
+    /**
+     * Build the prototype of a regular item: name, lore, flags, attributes, effects and fixed-level
+     * enchantments. Ranged and RANDOM enchantments are resolved here but rolled per item.
+     */
+    private void buildPrototype(LootItem lootItem) {
+        ItemBuilder builder = new ItemBuilder(lootItem.material);
+        
+        // Set display name
+        if (lootItem.displayName != null) {
+            builder.setDisplayName(lootItem.displayName);
+        }
+        
+        // Set lore
+        if (lootItem.lore != null && !lootItem.lore.isEmpty()) {
+            builder.setLore(lootItem.lore);
+        }
+        
+        // Set unbreakable
+        if (lootItem.unbreakable) {
+            builder.setUnbreakable(true);
+        }
+        
+        // Set custom model data
+        if (lootItem.customModelData > -1) {
+            builder.setCustomModelData(lootItem.customModelData);
+        }
+        
+        // Fixed levels go on the prototype, ranges and RANDOM are rolled per item
+        List<RolledEnchantment> rolledEnchantments = new ArrayList<>();
+        boolean hasRandomEnchantment = false;
+        if (lootItem.enchantments != null) {
+            for (EnchantmentData enchantData : lootItem.enchantments) {
+                if ("RANDOM".equalsIgnoreCase(enchantData.enchantment)) {
+                    rolledEnchantments.add(new RolledEnchantment(null, enchantData.minLevel, enchantData.maxLevel));
+                    hasRandomEnchantment = true;
+                    continue;
+                }
+                
+                Enchantment enchantment = ItemBuilder.getEnchantmentByName(enchantData.enchantment);
+                if (enchantment == null) {
+                    continue;
+                }
+                
+                if (enchantData.maxLevel > enchantData.minLevel) {
+                    rolledEnchantments.add(new RolledEnchantment(enchantment, enchantData.minLevel, enchantData.maxLevel));
+                } else {
+                    builder.addEnchantment(enchantment, enchantData.minLevel > 0 ? enchantData.minLevel : enchantData.level);
+                }
+            }
+        }
+        
+        // Add attributes
+        if (lootItem.attributes != null) {
+            for (AttributeData attributeData : lootItem.attributes) {
+                Attribute attribute = ItemBuilder.getAttributeByName(attributeData.attribute);
+                if (attribute != null) {
+                    AttributeModifier.Operation operation = ItemBuilder.getOperationByName(attributeData.operation);
+                    EquipmentSlot slot = getEquipmentSlot(attributeData.slot);
+                    builder.addAttribute(attribute, attributeData.value, operation, slot);
+                }
+            }
+        }
+        
+        // Add custom effects (for consumables)
+        if (lootItem.customEffects != null) {
+            for (CustomEffectData effectData : lootItem.customEffects) {
+                PotionEffectType effectType = ItemBuilder.getPotionEffectByName(effectData.effect);
+                if (effectType != null) {
+                    builder.addPotionEffect(effectType, effectData.duration, effectData.amplifier);
+                }
+            }
+        }
+        
+        lootItem.prototype = builder.build();
+        lootItem.rolledEnchantments = rolledEnchantments;
+        lootItem.randomEnchantPool = new ArrayList<>();
+        
+        if (hasRandomEnchantment) {
+            for (Enchantment enchant : org.bukkit.Registry.ENCHANTMENT) {
+                if (enchant.canEnchantItem(lootItem.prototype)) {
+                    lootItem.randomEnchantPool.add(enchant);
+                }
+            }
+        }
+    }
+    
     private EquipmentSlot getEquipmentSlot(String slotName) {
         try {
             return EquipmentSlot.valueOf(slotName.toUpperCase());
@@ -1506,11 +1720,44 @@ public class LootManager {
         };
     }
     
+    /**
+     * Re-read the biome files on this thread; the old tables stay in use until the new ones are complete
+     */
     public void reload() {
-        lootTables.clear();
         loadLootTables();
     }
     
+    /**
+     * One load of the biome folder: loot tables, categories and the indexes built from them.
+     * Filled while parsing, then only read once published.
+     */
+    public static final class LootTables {
+        private static final LootTables EMPTY = new LootTables(0);
+        
+        private final int biomeFileCount;
+        private final Map<Biome, Map<Rarity, List<LootItem>>> tables = new HashMap<>();
+        private final Map<String, BiomeCategory> biomeCategories = new HashMap<>();
+        private final Map<Biome, BiomeCategory> biomeToCategory = new HashMap<>();
+        // Rarities with at least one loot entry, precomputed per biome so spawn checks never build items
+        private final Map<Biome, EnumSet<Rarity>> availableRarities = new HashMap<>();
+        // Items grouped by progression range, so a player's candidates are found by binary search
+        private final Map<Biome, Map<Rarity, CandidateIndex>> candidateIndexes = new HashMap<>();
+        // Read-only view for the loot GUI, built on first use
+        private LootView lootView;
+        
+        private LootTables(int biomeFileCount) {
+            this.biomeFileCount = biomeFileCount;
+        }
+        
+        int getBiomeFileCount() {
+            return biomeFileCount;
+        }
+        
+        int getCategoryCount() {
+            return biomeCategories.size();
+        }
+    }
+    
     // Inner classes for data structures
     private static class LootItem {
         Material material;
@@ -1546,6 +1793,110 @@ public class LootManager {
         long minRequiredBlocksMined = 0; // Minimum blocks required (inclusive)
         long maxRequiredBlocksMined = Long.MAX_VALUE; // Maximum blocks allowed (inclusive)
         String requiredBlocksMinedRange = null; // Original string representation for display
+        
+        // Regular items only: built at load, cloned on every roll and never handed out directly
+        ItemStack prototype;
+        List<RolledEnchantment> rolledEnchantments;
+        List<Enchantment> randomEnchantPool;
+    }
+    
+    /**
+     * Loot items of one biome and rarity split at every progression breakpoint.
+     * Every item in a bucket is available for the whole interval, so buckets are shared read-only.
+     */
+    private static final class CandidateIndex {
+        // Sorted interval starts; bucket i covers [breakpoints[i], breakpoints[i + 1])
+        private final long[] breakpoints;
+        private final Candidates[] buckets;
+        
+        private CandidateIndex(long[] breakpoints, Candidates[] buckets) {
+            this.breakpoints = breakpoints;
+            this.buckets = buckets;
+        }
+        
+        static CandidateIndex build(List<LootItem> items) {
+            // A range [min, max] starts an interval at min and ends it before max + 1
+            TreeSet<Long> points = new TreeSet<>();
+            for (LootItem item : items) {
+                points.add(item.minRequiredBlocksMined);
+                if (item.maxRequiredBlocksMined < Long.MAX_VALUE) {
+                    points.add(item.maxRequiredBlocksMined + 1);
+                }
+            }
+            
+            long[] breakpoints = new long[points.size()];
+            Candidates[] buckets = new Candidates[points.size()];
+            int index = 0;
+            for (long start : points) {
+                List<LootItem> bucket = new ArrayList<>();
+                for (LootItem item : items) {
+                    if (item.minRequiredBlocksMined <= start && start <= item.maxRequiredBlocksMined) {
+                        bucket.add(item);
+                    }
+                }
+                breakpoints[index] = start;
+                buckets[index] = new Candidates(bucket.toArray(new LootItem[0]));
+                index++;
+            }
+            return new CandidateIndex(breakpoints, buckets);
+        }
+        
+        /**
+         * Get the items available at the given blocks mined
+         */
+        Candidates candidatesFor(long blocksMined) {
+            int index = Arrays.binarySearch(breakpoints, blocksMined);
+            if (index < 0) {
+                // Not a breakpoint itself: use the interval that starts just before it
+                index = -index - 2;
+            }
+            return index < 0 ? Candidates.NONE : buckets[index];
+        }
+    }
+    
+    /**
+     * One candidate set with its chances as weights and a prebuilt alias table for weighted draws
+     */
+    private static final class Candidates {
+        static final Candidates NONE = new Candidates(new LootItem[0]);
+        
+        // Shared between lookups, must not be modified
+        final LootItem[] items;
+        final double[] weights;
+        final AliasTable aliasTable; // null when no item has a positive chance
+        
+        Candidates(LootItem[] items) {
+            this.items = items;
+            this.weights = new double[items.length];
+            double total = 0;
+            for (int i = 0; i < items.length; i++) {
+                weights[i] = Math.max(0, items[i].chance);
+                total += weights[i];
+            }
+            this.aliasTable = total > 0 ? new AliasTable(weights) : null;
+        }
+        
+        /**
+         * Pick items for the given number of slots, weighted by chance.
+         * Unique picks never repeat an item, so they may fill fewer slots.
+         */
+        List<LootItem> drawWeighted(int slots, boolean unique) {
+            List<LootItem> picks = new ArrayList<>(slots);
+            if (aliasTable == null) {
+                return picks;
+            }
+            
+            if (unique) {
+                for (int index : AliasTable.sampleWithoutReplacement(weights, slots)) {
+                    picks.add(items[index]);
+                }
+            } else {
+                for (int slot = 0; slot < slots; slot++) {
+                    picks.add(items[aliasTable.sample()]);
+                }
+            }
+            return picks;
+        }
     }
     
     private static class EnchantmentData {
@@ -1555,6 +1906,21 @@ public class LootManager {
         int maxLevel;
     }
     
+    /**
+     * An enchantment whose level is rolled per item; a null enchantment means RANDOM
+     */
+    private static class RolledEnchantment {
+        final Enchantment enchantment;
+        final int minLevel;
+        final int maxLevel;
+        
+        RolledEnchantment(Enchantment enchantment, int minLevel, int maxLevel) {
+            this.enchantment = enchantment;
+            this.minLevel = minLevel;
+            this.maxLevel = maxLevel;
+        }
+    }
+    
     private static class AttributeData {
         String attribute;
         double value;
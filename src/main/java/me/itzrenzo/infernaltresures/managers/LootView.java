@@ -0,0 +1,86 @@
+package me.itzrenzo.infernaltresures.managers;
+
+import me.itzrenzo.infernaltresures.models.BiomeCategory;
+import me.itzrenzo.infernaltresures.models.Rarity;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-only view of the loaded loot tables for the loot GUI.
+ * LootManager builds a new one on every (re)load, so opening menus never touches the biome files.
+ */
+public final class LootView {
+    
+    public static final LootView EMPTY = new LootView(Collections.emptyList());
+    
+    private final List<CategoryView> categories;
+    private final Map<String, CategoryView> byFileName = new HashMap<>();
+    
+    LootView(List<CategoryView> categories) {
+        this.categories = List.copyOf(categories);
+        for (CategoryView view : this.categories) {
+            byFileName.put(view.category.getFileName(), view);
+        }
+    }
+    
+    /**
+     * Get every category, in menu order
+     */
+    public List<CategoryView> getCategories() {
+        return categories;
+    }
+    
+    /**
+     * Get the view of a category, or null if it is not part of this load
+     */
+    public CategoryView getCategory(BiomeCategory category) {
+        return byFileName.get(category.getFileName());
+    }
+    
+    /**
+     * One biome category: the rarities that have loot and a display entry per loot item
+     */
+    public static final class CategoryView {
+        private final BiomeCategory category;
+        private final Set<Rarity> rarities;
+        private final Map<Rarity, List<LootManager.LootItemDisplay>> items;
+        
+        CategoryView(BiomeCategory category, Map<Rarity, List<LootManager.LootItemDisplay>> items) {
+            this.category = category;
+            this.items = new EnumMap<>(Rarity.class);
+            EnumSet<Rarity> nonEmpty = EnumSet.noneOf(Rarity.class);
+            for (Map.Entry<Rarity, List<LootManager.LootItemDisplay>> entry : items.entrySet()) {
+                this.items.put(entry.getKey(), List.copyOf(entry.getValue()));
+                if (!entry.getValue().isEmpty()) {
+                    nonEmpty.add(entry.getKey());
+                }
+            }
+            this.rarities = Collections.unmodifiableSet(nonEmpty);
+        }
+        
+        public BiomeCategory getCategory() {
+            return category;
+        }
+        
+        public Set<Rarity> getRarities() {
+            return rarities;
+        }
+        
+        public int getItemCount(Rarity rarity) {
+            return getItems(rarity).size();
+        }
+        
+        /**
+         * Display entries for a rarity; their ItemStacks are shared, so clone before changing them
+         */
+        public List<LootManager.LootItemDisplay> getItems(Rarity rarity) {
+            return items.getOrDefault(rarity, Collections.emptyList());
+        }
+    }
+}
@@ -246,6 +246,34 @@ public class MenuManager {
         return lootDisplayConfig.getInt("loot-display.max-loot-slots", 45);
     }
     
+    // Loot Display Page Button Methods (previous-page / next-page)
+    public Material getLootPageButtonMaterial(String buttonType) {
+        String materialName = lootDisplayConfig.getString("navigation." + buttonType + ".material", "ARROW");
+        try {
+            return Material.valueOf(materialName.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            plugin.getLogger().warning("Invalid navigation material: " + materialName);
+            return Material.ARROW;
+        }
+    }
+    
+    public int getLootPageButtonSlot(String buttonType) {
+        return lootDisplayConfig.getInt("navigation." + buttonType + ".slot", buttonType.equals("previous-page") ? 48 : 50);
+    }
+    
+    public String getLootPageButtonDisplayName(String buttonType) {
+        return lootDisplayConfig.getString("navigation." + buttonType + ".display-name", 
+            buttonType.equals("previous-page") ? "&e&lPrevious Page" : "&e&lNext Page");
+    }
+    
+    public List<String> getLootPageButtonLore(String buttonType) {
+        String path = "navigation." + buttonType + ".lore";
+        if (!lootDisplayConfig.isSet(path)) {
+            return List.of("&7Page {page} of {pages}");
+        }
+        return lootDisplayConfig.getStringList(path);
+    }
+    
     // Loot Display Detail Configuration Methods
     public boolean shouldShowChance() {
         return lootDisplayConfig.getBoolean("loot-display.show-details.chance", true);
@@ -15,19 +15,36 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class MessageManager {
     private final InfernalTresures plugin;
-    private FileConfiguration messagesConfig;
-    private final Map<String, String> cachedMessages = new HashMap<>();
+    // Compiled messages.yml with its render caches, replaced as a whole on reload
+    private volatile MessageSet messages = new MessageSet(null);
     
     public MessageManager(InfernalTresures plugin) {
         this.plugin = plugin;
     }
     
     public void loadMessages() {
+        MessageSet loaded = parseMessages();
+        if (loaded == null) {
+            return;
+        }
+        
+        publish(loaded);
+        plugin.getLogger().info("Loaded messages configuration");
+    }
+    
+    /**
+     * Read and compile messages.yml into a new set without touching the one in use, so it can run
+     * off the main thread. Returns null when the file cannot be created.
+     */
+    MessageSet parseMessages() {
         // Create messages.yml if it doesn't exist
         File messagesFile = new File(plugin.getDataFolder(), "messages.yml");
         if (!messagesFile.exists()) {
@@ -39,19 +56,23 @@ public class MessageManager {
                     inputStream.close();
                 } else {
                     plugin.getLogger().warning("Could not find messages.yml in plugin jar");
-                    return;
+                    return null;
                 }
             } catch (IOException e) {
                 plugin.getLogger().severe("Failed to create messages.yml: " + e.getMessage());
-                return;
+                return null;
             }
         }
         
         // Load the messages configuration
-        messagesConfig = YamlConfiguration.loadConfiguration(messagesFile);
-        cachedMessages.clear();
-        
-        plugin.getLogger().info("Loaded messages configuration");
+        return new MessageSet(YamlConfiguration.loadConfiguration(messagesFile));
+    }
+    
+    /**
+     * Make a compiled set the one in use; everything rendered from the previous set goes with it
+     */
+    void publish(MessageSet loaded) {
+        messages = loaded;
     }
     
     public void reload() {
@@ -59,119 +80,40 @@ public class MessageManager {
     }
     
     public String getMessage(String path) {
-        if (messagesConfig == null) {
-            return "Message not found: " + path;
-        }
-        
-        return cachedMessages.computeIfAbsent(path, k -> 
-            messagesConfig.getString("messages." + k, "Missing message: " + k));
+        return messages.getMessage(path);
     }
     
     public String getTreasureName(Rarity rarity, Biome biome) {
-        if (messagesConfig == null) {
-            return rarity.getDisplayName() + " " + formatBiomeName(biome) + " Treasure";
-        }
-        
-        String template = messagesConfig.getString("treasure-names." + rarity.name().toLowerCase(), 
-            "&{rarity_color}{rarity} {biome} Treasure");
-        
-        return replacePlaceholders(template, rarity, biome, null, null);
+        MessageSet current = messages;
+        return current.treasureNameTemplates[rarity.ordinal()].render(current, rarity, biome, null, null);
     }
     
     public Component getTreasureNameComponent(Rarity rarity, Biome biome) {
-        String name = getTreasureName(rarity, biome);
-        return LegacyComponentSerializer.legacyAmpersand().deserialize(name)
-            .decoration(TextDecoration.ITALIC, false);
+        MessageSet current = messages;
+        return current.renderComponent(current.treasureNameTemplates[rarity.ordinal()], rarity, biome, null, null);
     }
     
     public Component getHologramText(Rarity rarity, Biome biome) {
-        if (messagesConfig == null) {
-            return LegacyComponentSerializer.legacyAmpersand().deserialize(
-                "&{rarity_color}{rarity} {biome} Treasure".replace("{rarity_color}", getRarityColor(rarity))
-                    .replace("{rarity}", rarity.getDisplayName())
-                    .replace("{biome}", formatBiomeName(biome))
-            ).decoration(TextDecoration.ITALIC, false);
-        }
-        
-        String template = messagesConfig.getString("hologram.text", "&{rarity_color}{rarity} {biome} Treasure");
-        String hologramText = replacePlaceholders(template, rarity, biome, null, null);
-        return LegacyComponentSerializer.legacyAmpersand().deserialize(hologramText)
-            .decoration(TextDecoration.ITALIC, false);
+        MessageSet current = messages;
+        return current.renderComponent(current.hologramTemplate, rarity, biome, null, null);
     }
     
     public String getFormattedMessage(String messagePath, Rarity rarity, Biome biome, Player player, Integer despawnTime) {
-        String template = getMessage(messagePath);
-        return replacePlaceholders(template, rarity, biome, player, despawnTime);
+        MessageSet current = messages;
+        return current.getTemplate(messagePath).render(current, rarity, biome, player != null ? player.getName() : null, despawnTime);
     }
     
     public Component getFormattedMessageComponent(String messagePath, Rarity rarity, Biome biome, Player player, Integer despawnTime) {
-        String message = getFormattedMessage(messagePath, rarity, biome, player, despawnTime);
-        return LegacyComponentSerializer.legacyAmpersand().deserialize(message)
-            .decoration(TextDecoration.ITALIC, false);
+        MessageSet current = messages;
+        return current.renderComponent(current.getTemplate(messagePath), rarity, biome, player != null ? player.getName() : null, despawnTime);
     }
     
-    private String replacePlaceholders(String text, Rarity rarity, Biome biome, Player player, Integer despawnTime) {
-        if (text == null) return "";
-        
-        String result = text;
-        
-        // Rarity placeholders
-        if (rarity != null) {
-            result = result.replace("{rarity}", rarity.getDisplayName());
-            result = result.replace("{rarity_color}", getRarityColor(rarity));
-        }
-        
-        // Biome placeholders
-        if (biome != null) {
-            result = result.replace("{biome}", formatBiomeName(biome));
-        }
-        
-        // Player placeholders
-        if (player != null) {
-            result = result.replace("{player}", player.getName());
-        }
-        
-        // Time placeholders
-        if (despawnTime != null) {
-            result = result.replace("{despawn_time}", String.valueOf(despawnTime));
-        }
-        
-        // Other placeholders
-        result = result.replace("{count}", "0"); // Default, can be overridden
-        result = result.replace("{chance}", "0"); // Default, can be overridden
-        
-        return result;
-    }
-    
-    private String getRarityColor(Rarity rarity) {
-        if (messagesConfig == null) {
-            return switch (rarity) {
-                case COMMON -> "&f";
-                case RARE -> "&9";
-                case EPIC -> "&5";
-                case LEGENDARY -> "&6";
-                case MYTHIC -> "&c";
-            };
-        }
-        
-        return messagesConfig.getString("formatting.rarity-colors." + rarity.name().toLowerCase(), "&f");
-    }
-    
-    private String formatBiomeName(Biome biome) {
-        if (messagesConfig == null) {
-            return defaultFormatBiomeName(biome);
-        }
-        
-        // Check for custom biome name
-        String customName = messagesConfig.getString("biome-names." + biome.name().toLowerCase());
-        if (customName != null) {
-            return customName;
-        }
-        
-        return defaultFormatBiomeName(biome);
+    private static Component deserialize(String message) {
+        return LegacyComponentSerializer.legacyAmpersand().deserialize(message)
+            .decoration(TextDecoration.ITALIC, false);
     }
     
-    private String defaultFormatBiomeName(Biome biome) {
+    private static String defaultFormatBiomeName(Biome biome) {
         String biomeName = biome.toString().replace("_", " ").toLowerCase();
         String[] words = biomeName.split(" ");
         StringBuilder formatted = new StringBuilder();
@@ -193,17 +135,12 @@ public class MessageManager {
     }
     
     public Component getTreasureAnnouncementMessage(String playerName, Rarity rarity, Biome biome) {
-        String template = getMessage("treasure-announcement");
-        String message = template.replace("{player}", playerName)
-                                .replace("{rarity_color}", getRarityColor(rarity))
-                                .replace("{rarity}", rarity.getDisplayName())
-                                .replace("{biome}", formatBiomeName(biome));
-        return LegacyComponentSerializer.legacyAmpersand().deserialize(message)
-            .decoration(TextDecoration.ITALIC, false);
+        MessageSet current = messages;
+        return current.renderComponent(current.getTemplate("treasure-announcement"), rarity, biome, playerName, null);
     }
     
     public String getBiomeDisplayName(Biome biome) {
-        return formatBiomeName(biome);
+        return messages.formatBiomeName(biome);
     }
     
     public String getMessageWithCount(String messagePath, int count) {
@@ -218,9 +155,8 @@ public class MessageManager {
     
     // Helper method to get a message as a Component with color code parsing
     public Component getMessageComponent(String path) {
-        String message = getMessage(path);
-        return LegacyComponentSerializer.legacyAmpersand().deserialize(message)
-            .decoration(TextDecoration.ITALIC, false);
+        MessageSet current = messages;
+        return current.messageComponents.computeIfAbsent(path, k -> deserialize(current.getMessage(k)));
     }
     
     // Helper method to get a message with placeholder replacement as a Component
@@ -237,4 +173,235 @@ public class MessageManager {
         return LegacyComponentSerializer.legacyAmpersand().deserialize(message)
             .decoration(TextDecoration.ITALIC, false);
     }
+    
+    /**
+     * One load of messages.yml: the configuration, its compiled templates and rarity colors, and the
+     * output rendered from them. Templates are compiled in the constructor, the caches fill on use.
+     */
+    static final class MessageSet {
+        private final FileConfiguration config;
+        private final Map<String, String> cachedMessages = new ConcurrentHashMap<>();
+        private final Map<String, MessageTemplate> messageTemplates = new ConcurrentHashMap<>();
+        private final MessageTemplate[] treasureNameTemplates = new MessageTemplate[Rarity.values().length];
+        private final String[] rarityColors = new String[Rarity.values().length];
+        private final MessageTemplate hologramTemplate;
+        // Rendered output for the finite (template, rarity, biome, despawn time) combinations, and biome display names
+        private final Map<RenderKey, Component> renderedComponents = new ConcurrentHashMap<>();
+        private final Map<String, Component> messageComponents = new ConcurrentHashMap<>();
+        private final Map<Biome, String> biomeNames = new ConcurrentHashMap<>();
+        
+        private MessageSet(FileConfiguration config) {
+            this.config = config;
+            
+            for (Rarity rarity : Rarity.values()) {
+                rarityColors[rarity.ordinal()] = readRarityColor(rarity);
+                treasureNameTemplates[rarity.ordinal()] = new MessageTemplate(config == null
+                    ? "{rarity} {biome} Treasure"
+                    : config.getString("treasure-names." + rarity.name().toLowerCase(), "&{rarity_color}{rarity} {biome} Treasure"));
+            }
+            hologramTemplate = new MessageTemplate(config == null
+                ? "&{rarity_color}{rarity} {biome} Treasure"
+                : config.getString("hologram.text", "&{rarity_color}{rarity} {biome} Treasure"));
+            
+            if (config != null && config.getConfigurationSection("messages") != null) {
+                for (String key : config.getConfigurationSection("messages").getKeys(true)) {
+                    if (config.isString("messages." + key)) {
+                        messageTemplates.put(key, new MessageTemplate(getMessage(key)));
+                    }
+                }
+            }
+        }
+        
+        /**
+         * Number of messages compiled from the messages section
+         */
+        int getMessageCount() {
+            return messageTemplates.size();
+        }
+        
+        private String getMessage(String path) {
+            if (config == null) {
+                return "Message not found: " + path;
+            }
+            
+            return cachedMessages.computeIfAbsent(path, k -> 
+                config.getString("messages." + k, "Missing message: " + k));
+        }
+        
+        private MessageTemplate getTemplate(String messagePath) {
+            return messageTemplates.computeIfAbsent(messagePath, k -> new MessageTemplate(getMessage(k)));
+        }
+        
+        /**
+         * Render a template to a Component. Output without a player name is cached, since rarity, biome
+         * and despawn time only take a few values; player specific output is rendered per call.
+         */
+        private Component renderComponent(MessageTemplate template, Rarity rarity, Biome biome, String playerName, Integer despawnTime) {
+            if (playerName != null && template.playerSpecific) {
+                return deserialize(template.render(this, rarity, biome, playerName, despawnTime));
+            }
+            return renderedComponents.computeIfAbsent(new RenderKey(template, rarity, biome, despawnTime),
+                k -> deserialize(template.render(this, rarity, biome, null, despawnTime)));
+        }
+        
+        private String getRarityColor(Rarity rarity) {
+            return rarityColors[rarity.ordinal()];
+        }
+        
+        private String readRarityColor(Rarity rarity) {
+            if (config == null) {
+                return switch (rarity) {
+                    case COMMON -> "&f";
+                    case RARE -> "&9";
+                    case EPIC -> "&5";
+                    case LEGENDARY -> "&6";
+                    case MYTHIC -> "&c";
+                };
+            }
+            
+            return config.getString("formatting.rarity-colors." + rarity.name().toLowerCase(), "&f");
+        }
+        
+        private String formatBiomeName(Biome biome) {
+            return biomeNames.computeIfAbsent(biome, this::readBiomeName);
+        }
+        
+        private String readBiomeName(Biome biome) {
+            if (config == null) {
+                return defaultFormatBiomeName(biome);
+            }
+            
+            // Check for custom biome name
+            String customName = config.getString("biome-names." + biome.name().toLowerCase());
+            if (customName != null) {
+                return customName;
+            }
+            
+            return defaultFormatBiomeName(biome);
+        }
+    }
+    
+    private enum Placeholder {
+        RARITY("{rarity}"),
+        RARITY_COLOR("{rarity_color}"),
+        BIOME("{biome}"),
+        PLAYER("{player}"),
+        DESPAWN_TIME("{despawn_time}"),
+        COUNT("{count}"),
+        CHANCE("{chance}");
+        
+        private final String token;
+        
+        Placeholder(String token) {
+            this.token = token;
+        }
+        
+        private static Placeholder fromToken(String token) {
+            for (Placeholder placeholder : values()) {
+                if (placeholder.token.equals(token)) {
+                    return placeholder;
+                }
+            }
+            return null;
+        }
+    }
+    
+    /**
+     * Message text split once into literal runs and placeholders, so rendering is a single append pass.
+     * Unknown {tokens} stay literal, as do placeholders with no value for the call.
+     */
+    private static final class MessageTemplate {
+        // literals[i] comes before placeholders[i]; the last literal trails the final placeholder
+        private final String[] literals;
+        private final Placeholder[] placeholders;
+        private final boolean playerSpecific;
+        
+        private MessageTemplate(String text) {
+            List<String> literalList = new ArrayList<>();
+            List<Placeholder> placeholderList = new ArrayList<>();
+            StringBuilder literal = new StringBuilder();
+            
+            int i = 0;
+            while (i < text.length()) {
+                int open = text.indexOf('{', i);
+                int close = open < 0 ? -1 : text.indexOf('}', open);
+                if (close < 0) {
+                    literal.append(text, i, text.length());
+                    break;
+                }
+                
+                Placeholder placeholder = Placeholder.fromToken(text.substring(open, close + 1));
+                if (placeholder == null) {
+                    // Not one of ours, keep the brace and carry on after it
+                    literal.append(text, i, open + 1);
+                    i = open + 1;
+                    continue;
+                }
+                
+                literal.append(text, i, open);
+                literalList.add(literal.toString());
+                literal.setLength(0);
+                placeholderList.add(placeholder);
+                i = close + 1;
+            }
+            literalList.add(literal.toString());
+            
+            this.literals = literalList.toArray(new String[0]);
+            this.placeholders = placeholderList.toArray(new Placeholder[0]);
+            this.playerSpecific = placeholderList.contains(Placeholder.PLAYER);
+        }
+        
+        private String render(MessageSet messages, Rarity rarity, Biome biome, String playerName, Integer despawnTime) {
+            if (placeholders.length == 0) {
+                return literals[0];
+            }
+            
+            StringBuilder out = new StringBuilder(64);
+            for (int i = 0; i < placeholders.length; i++) {
+                out.append(literals[i]);
+                String value = switch (placeholders[i]) {
+                    case RARITY -> rarity != null ? rarity.getDisplayName() : null;
+                    case RARITY_COLOR -> rarity != null ? messages.getRarityColor(rarity) : null;
+                    case BIOME -> biome != null ? messages.formatBiomeName(biome) : null;
+                    case PLAYER -> playerName;
+                    case DESPAWN_TIME -> despawnTime != null ? String.valueOf(despawnTime) : null;
+                    // Default, can be overridden
+                    case COUNT, CHANCE -> "0";
+                };
+                out.append(value != null ? value : placeholders[i].token);
+            }
+            out.append(literals[placeholders.length]);
+            return out.toString();
+        }
+    }
+    
+    /**
+     * Cache key of one rendered combination; the template is compared by identity
+     */
+    private static final class RenderKey {
+        private final MessageTemplate template;
+        private final Rarity rarity;
+        private final Biome biome;
+        private final Integer despawnTime;
+        
+        private RenderKey(MessageTemplate template, Rarity rarity, Biome biome, Integer despawnTime) {
+            this.template = template;
+            this.rarity = rarity;
+            this.biome = biome;
+            this.despawnTime = despawnTime;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof RenderKey other)) return false;
+            return template == other.template && rarity == other.rarity 
+                && Objects.equals(biome, other.biome) && Objects.equals(despawnTime, other.despawnTime);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(template), rarity, biome, despawnTime);
+        }
+    }
 }
\ No newline at end of file
@@ -22,6 +22,7 @@ public class MysqlStatsStorage implements StatsStorage {
     private final String username;
     private final String password;
     private final Map<String, Object> properties;
+    private final PersistenceExecutor executor;
     private HikariDataSource dataSource;
     
     public MysqlStatsStorage(InfernalTresures plugin, String host, int port, String database, 
@@ -33,11 +34,13 @@ public class MysqlStatsStorage implements StatsStorage {
         this.username = username;
         this.password = password;
         this.properties = properties;
+        // One worker per pooled connection so queries never wait on the pool
+        this.executor = PersistenceExecutor.pooled(plugin, "MySQL", (Integer) properties.getOrDefault("maximum-pool-size", 10));
     }
     
     @Override
     public CompletableFuture<Void> initialize() {
-        return CompletableFuture.runAsync(() -> {
+        return executor.runAsync(() -> {
             try {
                 // Load MySQL driver (updated for mysql-connector-j)
                 Class.forName("com.mysql.cj.jdbc.Driver");
@@ -108,6 +111,7 @@ public class MysqlStatsStorage implements StatsStorage {
                 queued_luck_end_time BIGINT DEFAULT 0,
                 queued_luck_multiplier DOUBLE DEFAULT 1.0,
                 treasure_spawning_enabled BOOLEAN DEFAULT TRUE,
+                journal_seq BIGINT DEFAULT 0,
                 created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                 updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
             ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
@@ -116,21 +120,32 @@ public class MysqlStatsStorage implements StatsStorage {
         try (Statement statement = connection.createStatement()) {
             statement.execute(createTableSQL);
         }
+        
+        // Tables created before the journal sequence existed need the column added
+        try (ResultSet columns = connection.getMetaData().getColumns(null, null, "player_stats", "journal_seq")) {
+            if (!columns.next()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("ALTER TABLE player_stats ADD COLUMN journal_seq BIGINT DEFAULT 0");
+                }
+            }
+        }
     }
     
     @Override
     public CompletableFuture<Void> close() {
-        return CompletableFuture.runAsync(() -> {
-            if (dataSource != null) {
-                dataSource.close();
-                plugin.getLogger().info("Closed MySQL database connection pool");
-            }
-        });
+        // Finish every queued write before closing the pool
+        executor.drain();
+        
+        if (dataSource != null) {
+            dataSource.close();
+            plugin.getLogger().info("Closed MySQL database connection pool");
+        }
+        return CompletableFuture.completedFuture(null);
     }
     
     @Override
     public CompletableFuture<StatsManager.PlayerStats> loadPlayerStats(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> {
+        return executor.supplyAsync(() -> {
             String sql = "SELECT * FROM player_stats WHERE uuid = ?";
             
             try (Connection connection = dataSource.getConnection();
@@ -142,18 +157,19 @@ public class MysqlStatsStorage implements StatsStorage {
                     if (resultSet.next()) {
                         StatsManager.PlayerStats stats = new StatsManager.PlayerStats();
                         
-                        stats.totalBlocksMined = resultSet.getLong("total_blocks_mined");
-                        stats.commonTreasuresFound = resultSet.getLong("common_treasures_found");
-                        stats.rareTreasuresFound = resultSet.getLong("rare_treasures_found");
-                        stats.epicTreasuresFound = resultSet.getLong("epic_treasures_found");
-                        stats.legendaryTreasuresFound = resultSet.getLong("legendary_treasures_found");
-                        stats.mythicTreasuresFound = resultSet.getLong("mythic_treasures_found");
-                        stats.minutesPlayed = resultSet.getLong("minutes_played");
-                        stats.luckEndTime = resultSet.getLong("luck_end_time");
-                        stats.luckMultiplier = resultSet.getDouble("luck_multiplier");
-                        stats.queuedLuckEndTime = resultSet.getLong("queued_luck_end_time");
-                        stats.queuedLuckMultiplier = resultSet.getDouble("queued_luck_multiplier");
-                        stats.treasureSpawningEnabled = resultSet.getBoolean("treasure_spawning_enabled");
+                        stats.setTotalBlocksMined(resultSet.getLong("total_blocks_mined"));
+                        stats.setCommonTreasuresFound(resultSet.getLong("common_treasures_found"));
+                        stats.setRareTreasuresFound(resultSet.getLong("rare_treasures_found"));
+                        stats.setEpicTreasuresFound(resultSet.getLong("epic_treasures_found"));
+                        stats.setLegendaryTreasuresFound(resultSet.getLong("legendary_treasures_found"));
+                        stats.setMythicTreasuresFound(resultSet.getLong("mythic_treasures_found"));
+                        stats.setMinutesPlayed(resultSet.getLong("minutes_played"));
+                        stats.setLuckEndTime(resultSet.getLong("luck_end_time"));
+                        stats.setLuckMultiplier(resultSet.getDouble("luck_multiplier"));
+                        stats.setQueuedLuckEndTime(resultSet.getLong("queued_luck_end_time"));
+                        stats.setQueuedLuckMultiplier(resultSet.getDouble("queued_luck_multiplier"));
+                        stats.setTreasureSpawningEnabled(resultSet.getBoolean("treasure_spawning_enabled"));
+                        stats.setJournalSequence(resultSet.getLong("journal_seq"));
                         
                         return stats;
                     } else {
@@ -162,21 +178,22 @@ public class MysqlStatsStorage implements StatsStorage {
                 }
             } catch (SQLException e) {
                 plugin.getLogger().severe("Error loading player stats from MySQL: " + e.getMessage());
-                return new StatsManager.PlayerStats();
+                // Fail the load rather than hand back an empty row that would overwrite the stored one
+                throw new RuntimeException(e);
             }
         });
     }
     
     @Override
     public CompletableFuture<Void> savePlayerStats(UUID uuid, StatsManager.PlayerStats stats) {
-        return CompletableFuture.runAsync(() -> {
+        return executor.runAsync(() -> {
             String sql = """
                 INSERT INTO player_stats (
                     uuid, total_blocks_mined, common_treasures_found, rare_treasures_found,
                     epic_treasures_found, legendary_treasures_found, mythic_treasures_found,
                     minutes_played, luck_end_time, luck_multiplier, queued_luck_end_time,
-                    queued_luck_multiplier, treasure_spawning_enabled
-                ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                    queued_luck_multiplier, treasure_spawning_enabled, journal_seq
+                ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
                 ON DUPLICATE KEY UPDATE
                     total_blocks_mined = VALUES(total_blocks_mined),
                     common_treasures_found = VALUES(common_treasures_found),
@@ -189,25 +206,27 @@ public class MysqlStatsStorage implements StatsStorage {
                     luck_multiplier = VALUES(luck_multiplier),
                     queued_luck_end_time = VALUES(queued_luck_end_time),
                     queued_luck_multiplier = VALUES(queued_luck_multiplier),
-                    treasure_spawning_enabled = VALUES(treasure_spawning_enabled)
+                    treasure_spawning_enabled = VALUES(treasure_spawning_enabled),
+                    journal_seq = VALUES(journal_seq)
                 """;
             
             try (Connection connection = dataSource.getConnection();
                  PreparedStatement statement = connection.prepareStatement(sql)) {
                 
                 statement.setString(1, uuid.toString());
-                statement.setLong(2, stats.totalBlocksMined);
-                statement.setLong(3, stats.commonTreasuresFound);
-                statement.setLong(4, stats.rareTreasuresFound);
-                statement.setLong(5, stats.epicTreasuresFound);
-                statement.setLong(6, stats.legendaryTreasuresFound);
-                statement.setLong(7, stats.mythicTreasuresFound);
-                statement.setLong(8, stats.minutesPlayed);
-                statement.setLong(9, stats.luckEndTime);
-                statement.setDouble(10, stats.luckMultiplier);
-                statement.setLong(11, stats.queuedLuckEndTime);
-                statement.setDouble(12, stats.queuedLuckMultiplier);
-                statement.setBoolean(13, stats.treasureSpawningEnabled);
+                statement.setLong(2, stats.getTotalBlocksMined());
+                statement.setLong(3, stats.getCommonTreasuresFound());
+                statement.setLong(4, stats.getRareTreasuresFound());
+                statement.setLong(5, stats.getEpicTreasuresFound());
+                statement.setLong(6, stats.getLegendaryTreasuresFound());
+                statement.setLong(7, stats.getMythicTreasuresFound());
+                statement.setLong(8, stats.getMinutesPlayed());
+                statement.setLong(9, stats.getLuckEndTime());
+                statement.setDouble(10, stats.getLuckMultiplier());
+                statement.setLong(11, stats.getQueuedLuckEndTime());
+                statement.setDouble(12, stats.getQueuedLuckMultiplier());
+                statement.setBoolean(13, stats.isTreasureSpawningEnabled());
+                statement.setLong(14, stats.getJournalSequence());
                 
                 statement.executeUpdate();
             } catch (SQLException e) {
@@ -219,7 +238,7 @@ public class MysqlStatsStorage implements StatsStorage {
     
     @Override
     public CompletableFuture<Map<UUID, StatsManager.PlayerStats>> loadAllPlayerStats() {
-        return CompletableFuture.supplyAsync(() -> {
+        return executor.supplyAsync(() -> {
             Map<UUID, StatsManager.PlayerStats> allStats = new HashMap<>();
             String sql = "SELECT * FROM player_stats";
             
@@ -232,18 +251,19 @@ public class MysqlStatsStorage implements StatsStorage {
                         UUID uuid = UUID.fromString(resultSet.getString("uuid"));
                         StatsManager.PlayerStats stats = new StatsManager.PlayerStats();
                         
-                        stats.totalBlocksMined = resultSet.getLong("total_blocks_mined");
-                        stats.commonTreasuresFound = resultSet.getLong("common_treasures_found");
-                        stats.rareTreasuresFound = resultSet.getLong("rare_treasures_found");
-                        stats.epicTreasuresFound = resultSet.getLong("epic_treasures_found");
-                        stats.legendaryTreasuresFound = resultSet.getLong("legendary_treasures_found");
-                        stats.mythicTreasuresFound = resultSet.getLong("mythic_treasures_found");
-                        stats.minutesPlayed = resultSet.getLong("minutes_played");
-                        stats.luckEndTime = resultSet.getLong("luck_end_time");
-                        stats.luckMultiplier = resultSet.getDouble("luck_multiplier");
-                        stats.queuedLuckEndTime = resultSet.getLong("queued_luck_end_time");
-                        stats.queuedLuckMultiplier = resultSet.getDouble("queued_luck_multiplier");
-                        stats.treasureSpawningEnabled = resultSet.getBoolean("treasure_spawning_enabled");
+                        stats.setTotalBlocksMined(resultSet.getLong("total_blocks_mined"));
+                        stats.setCommonTreasuresFound(resultSet.getLong("common_treasures_found"));
+                        stats.setRareTreasuresFound(resultSet.getLong("rare_treasures_found"));
+                        stats.setEpicTreasuresFound(resultSet.getLong("epic_treasures_found"));
+                        stats.setLegendaryTreasuresFound(resultSet.getLong("legendary_treasures_found"));
+                        stats.setMythicTreasuresFound(resultSet.getLong("mythic_treasures_found"));
+                        stats.setMinutesPlayed(resultSet.getLong("minutes_played"));
+                        stats.setLuckEndTime(resultSet.getLong("luck_end_time"));
+                        stats.setLuckMultiplier(resultSet.getDouble("luck_multiplier"));
+                        stats.setQueuedLuckEndTime(resultSet.getLong("queued_luck_end_time"));
+                        stats.setQueuedLuckMultiplier(resultSet.getDouble("queued_luck_multiplier"));
+                        stats.setTreasureSpawningEnabled(resultSet.getBoolean("treasure_spawning_enabled"));
+                        stats.setJournalSequence(resultSet.getLong("journal_seq"));
                         
                         allStats.put(uuid, stats);
                     } catch (IllegalArgumentException e) {
@@ -262,14 +282,14 @@ public class MysqlStatsStorage implements StatsStorage {
     
     @Override
     public CompletableFuture<Void> saveAllPlayerStats(Map<UUID, StatsManager.PlayerStats> allStats) {
-        return CompletableFuture.runAsync(() -> {
+        return executor.runAsync(() -> {
             String sql = """
                 INSERT INTO player_stats (
                     uuid, total_blocks_mined, common_treasures_found, rare_treasures_found,
                     epic_treasures_found, legendary_treasures_found, mythic_treasures_found,
                     minutes_played, luck_end_time, luck_multiplier, queued_luck_end_time,
-                    queued_luck_multiplier, treasure_spawning_enabled
-                ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                    queued_luck_multiplier, treasure_spawning_enabled, journal_seq
+                ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
                 ON DUPLICATE KEY UPDATE
                     total_blocks_mined = VALUES(total_blocks_mined),
                     common_treasures_found = VALUES(common_treasures_found),
@@ -282,7 +302,8 @@ public class MysqlStatsStorage implements StatsStorage {
                     luck_multiplier = VALUES(luck_multiplier),
                     queued_luck_end_time = VALUES(queued_luck_end_time),
                     queued_luck_multiplier = VALUES(queued_luck_multiplier),
-                    treasure_spawning_enabled = VALUES(treasure_spawning_enabled)
+                    treasure_spawning_enabled = VALUES(treasure_spawning_enabled),
+                    journal_seq = VALUES(journal_seq)
                 """;
 
             try (Connection connection = dataSource.getConnection()) {
@@ -294,18 +315,19 @@ public class MysqlStatsStorage implements StatsStorage {
                         StatsManager.PlayerStats stats = entry.getValue();
                         
                         statement.setString(1, uuid.toString());
-                        statement.setLong(2, stats.totalBlocksMined);
-                        statement.setLong(3, stats.commonTreasuresFound);
-                        statement.setLong(4, stats.rareTreasuresFound);
-                        statement.setLong(5, stats.epicTreasuresFound);
-                        statement.setLong(6, stats.legendaryTreasuresFound);
-                        statement.setLong(7, stats.mythicTreasuresFound);
-                        statement.setLong(8, stats.minutesPlayed);
-                        statement.setLong(9, stats.luckEndTime);
-                        statement.setDouble(10, stats.luckMultiplier);
-                        statement.setLong(11, stats.queuedLuckEndTime);
-                        statement.setDouble(12, stats.queuedLuckMultiplier);
-                        statement.setBoolean(13, stats.treasureSpawningEnabled);
+                        statement.setLong(2, stats.getTotalBlocksMined());
+                        statement.setLong(3, stats.getCommonTreasuresFound());
+                        statement.setLong(4, stats.getRareTreasuresFound());
+                        statement.setLong(5, stats.getEpicTreasuresFound());
+                        statement.setLong(6, stats.getLegendaryTreasuresFound());
+                        statement.setLong(7, stats.getMythicTreasuresFound());
+                        statement.setLong(8, stats.getMinutesPlayed());
+                        statement.setLong(9, stats.getLuckEndTime());
+                        statement.setDouble(10, stats.getLuckMultiplier());
+                        statement.setLong(11, stats.getQueuedLuckEndTime());
+                        statement.setDouble(12, stats.getQueuedLuckMultiplier());
+                        statement.setBoolean(13, stats.isTreasureSpawningEnabled());
+                        statement.setLong(14, stats.getJournalSequence());
                         
                         statement.addBatch();
                     }
@@ -320,6 +342,20 @@ public class MysqlStatsStorage implements StatsStorage {
         });
     }
     
+    @Override
+    public CompletableFuture<Long> loadJournalSequence() {
+        return executor.supplyAsync(() -> {
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("SELECT MAX(journal_seq) FROM player_stats")) {
+                return resultSet.next() ? resultSet.getLong(1) : 0L;
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Error loading journal sequence from MySQL: " + e.getMessage());
+                throw new RuntimeException(e);
+            }
+        });
+    }
+    
     @Override
     public boolean isAvailable() {
         return dataSource != null && !dataSource.isClosed();
@@ -329,4 +365,9 @@ public class MysqlStatsStorage implements StatsStorage {
     public String getStorageType() {
         return "MySQL";
     }
+    
+    @Override
+    public int getQueuedTasks() {
+        return executor.getQueuedTasks();
+    }
 }
\ No newline at end of file
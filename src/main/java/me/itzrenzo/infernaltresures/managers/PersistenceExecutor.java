@@ -0,0 +1,158 @@
+package me.itzrenzo.infernaltresures.managers;
+
+import me.itzrenzo.infernaltresures.InfernalTresures;
+import org.bukkit.Bukkit;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Dedicated, bounded executor for stats storage I/O so blocking file and JDBC calls
+ * never run on the common ForkJoin pool
+ */
+public class PersistenceExecutor {
+
+    private static final int DEFAULT_QUEUE_CAPACITY = 10000;
+    private static final long DRAIN_TIMEOUT_SECONDS = 30;
+    private static final long QUEUE_WAIT_MILLIS = 50;
+
+    private final InfernalTresures plugin;
+    private final String name;
+    private final ThreadPoolExecutor executor;
+    // Held while shutting down and while the rejection handler enqueues, so no task lands in a stopped queue
+    private final Object lock = new Object();
+
+    private PersistenceExecutor(InfernalTresures plugin, String name, int threads, int queueCapacity, boolean virtualThreads) {
+        this.plugin = plugin;
+        this.name = name;
+        this.executor = new ThreadPoolExecutor(
+            threads, threads,
+            60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            createThreadFactory(name, virtualThreads),
+            this::waitForSpace
+        );
+    }
+
+    /**
+     * Single thread executor, for backends that must only be touched by one writer (YML, SQLite)
+     */
+    public static PersistenceExecutor singleWriter(InfernalTresures plugin, String name) {
+        return new PersistenceExecutor(plugin, name, 1, getQueueCapacity(plugin), false);
+    }
+
+    /**
+     * Fixed size executor, for pooled backends (MySQL); threads should match the connection pool size
+     */
+    public static PersistenceExecutor pooled(InfernalTresures plugin, String name, int threads) {
+        boolean virtualThreads = plugin.getConfig().getBoolean("database.executor.virtual-threads", false);
+        return new PersistenceExecutor(plugin, name, Math.max(1, threads), getQueueCapacity(plugin), virtualThreads);
+    }
+
+    private static int getQueueCapacity(InfernalTresures plugin) {
+        return Math.max(1, plugin.getConfig().getInt("database.executor.queue-capacity", DEFAULT_QUEUE_CAPACITY));
+    }
+
+    private static ThreadFactory createThreadFactory(String name, boolean virtualThreads) {
+        String prefix = "InfernalTreasures-" + name + "-";
+        if (virtualThreads) {
+            return Thread.ofVirtual().name(prefix, 0).factory();
+        }
+
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Backpressure: when the queue is full a background submitter waits for space
+     * instead of running the task itself, which would break the single-writer guarantee.
+     * While the server ticks the main thread never waits; its task is rejected and the caller
+     * merges the work into its next write. Once the plugin is disabling there is no next write,
+     * so the final flush waits like everyone else.
+     */
+    private void waitForSpace(Runnable task, ThreadPoolExecutor executor) {
+        if (Bukkit.isPrimaryThread() && plugin.isEnabled()) {
+            throw new RejectedExecutionException(name + " persistence queue is full");
+        }
+        try {
+            while (true) {
+                synchronized (lock) {
+                    if (executor.isShutdown()) {
+                        throw new RejectedExecutionException(name + " persistence executor is shut down");
+                    }
+                    if (executor.getQueue().offer(task, QUEUE_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                        return;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for queue space", e);
+        }
+    }
+
+    /**
+     * Run a task on the executor. A rejected task completes the future exceptionally instead of throwing.
+     */
+    public CompletableFuture<Void> runAsync(Runnable task) {
+        try {
+            return CompletableFuture.runAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Get the number of tasks waiting to run
+     */
+    public int getQueuedTasks() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Stop accepting work and wait for everything already queued to finish.
+     * Tasks still queued at the timeout run on the calling thread once the workers have stopped.
+     */
+    public void drain() {
+        synchronized (lock) {
+            executor.shutdown();
+        }
+        try {
+            if (executor.awaitTermination(DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                return;
+            }
+            
+            // Interrupt the workers; the leftovers may only run here once nothing else can be writing
+            List<Runnable> leftover = executor.shutdownNow();
+            if (!executor.awaitTermination(DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                plugin.getLogger().severe(name + " persistence workers did not stop, dropping " + leftover.size() + " pending tasks");
+                return;
+            }
+            plugin.getLogger().warning(name + " persistence queue did not drain within " + DRAIN_TIMEOUT_SECONDS +
+                "s, finishing " + leftover.size() + " pending tasks on this thread");
+            leftover.forEach(Runnable::run);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+}
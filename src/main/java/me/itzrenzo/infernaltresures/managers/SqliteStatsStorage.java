@@ -14,18 +14,34 @@ import java.util.concurrent.CompletableFuture;
  */
 public class SqliteStatsStorage implements StatsStorage {
     
+    private static final String UPSERT_SQL = """
+        INSERT OR REPLACE INTO player_stats (
+            uuid, total_blocks_mined, common_treasures_found, rare_treasures_found,
+            epic_treasures_found, legendary_treasures_found, mythic_treasures_found,
+            minutes_played, luck_end_time, luck_multiplier, queued_luck_end_time,
+            queued_luck_multiplier, treasure_spawning_enabled, journal_seq
+        ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+    
     private final InfernalTresures plugin;
     private final String filename;
+    private final int batchSize;
+    // The shared connection is only ever touched from this single writer thread
+    private final PersistenceExecutor executor;
     private Connection connection;
+    // Prepared once and reused for every save
+    private PreparedStatement upsertStatement;
     
     public SqliteStatsStorage(InfernalTresures plugin, String filename) {
         this.plugin = plugin;
         this.filename = filename;
+        this.batchSize = Math.max(1, plugin.getConfig().getInt("database.sqlite.batch-size", 1000));
+        this.executor = PersistenceExecutor.singleWriter(plugin, "SQLite");
     }
     
     @Override
     public CompletableFuture<Void> initialize() {
-        return CompletableFuture.runAsync(() -> {
+        return executor.runAsync(() -> {
             try {
                 File dbFile = new File(plugin.getDataFolder(), filename);
                 String url = "jdbc:sqlite:" + dbFile.getAbsolutePath();
@@ -36,9 +52,17 @@ public class SqliteStatsStorage implements StatsStorage {
                 connection = DriverManager.getConnection(url);
                 connection.setAutoCommit(true);
                 
+                // WAL lets reads run alongside writes; NORMAL skips the fsync on every commit
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("PRAGMA journal_mode=WAL");
+                    statement.execute("PRAGMA synchronous=NORMAL");
+                }
+                
                 // Create table if it doesn't exist
                 createTable();
                 
+                upsertStatement = connection.prepareStatement(UPSERT_SQL);
+                
                 plugin.getLogger().info("Connected to SQLite database: " + filename);
             } catch (ClassNotFoundException e) {
                 plugin.getLogger().severe("SQLite driver not found: " + e.getMessage());
@@ -65,32 +89,47 @@ public class SqliteStatsStorage implements StatsStorage {
                 luck_multiplier REAL DEFAULT 1.0,
                 queued_luck_end_time INTEGER DEFAULT 0,
                 queued_luck_multiplier REAL DEFAULT 1.0,
-                treasure_spawning_enabled INTEGER DEFAULT 1
+                treasure_spawning_enabled INTEGER DEFAULT 1,
+                journal_seq INTEGER DEFAULT 0
             )
             """;
         
         try (Statement statement = connection.createStatement()) {
             statement.execute(createTableSQL);
         }
+        
+        // Tables created before the journal sequence existed need the column added
+        try (ResultSet columns = connection.getMetaData().getColumns(null, null, "player_stats", "journal_seq")) {
+            if (!columns.next()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("ALTER TABLE player_stats ADD COLUMN journal_seq INTEGER DEFAULT 0");
+                }
+            }
+        }
     }
     
     @Override
     public CompletableFuture<Void> close() {
-        return CompletableFuture.runAsync(() -> {
-            if (connection != null) {
-                try {
-                    connection.close();
-                    plugin.getLogger().info("Closed SQLite database connection");
-                } catch (SQLException e) {
-                    plugin.getLogger().warning("Error closing SQLite connection: " + e.getMessage());
+        // Finish every queued write before closing the connection underneath it
+        executor.drain();
+        
+        if (connection != null) {
+            try {
+                if (upsertStatement != null) {
+                    upsertStatement.close();
                 }
+                connection.close();
+                plugin.getLogger().info("Closed SQLite database connection");
+            } catch (SQLException e) {
+                plugin.getLogger().warning("Error closing SQLite connection: " + e.getMessage());
             }
-        });
+        }
+        return CompletableFuture.completedFuture(null);
     }
     
     @Override
     public CompletableFuture<StatsManager.PlayerStats> loadPlayerStats(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> {
+        return executor.supplyAsync(() -> {
             String sql = "SELECT * FROM player_stats WHERE uuid = ?";
             
             try (PreparedStatement statement = connection.prepareStatement(sql)) {
@@ -100,18 +139,19 @@ public class SqliteStatsStorage implements StatsStorage {
                     if (resultSet.next()) {
                         StatsManager.PlayerStats stats = new StatsManager.PlayerStats();
                         
-                        stats.totalBlocksMined = resultSet.getLong("total_blocks_mined");
-                        stats.commonTreasuresFound = resultSet.getLong("common_treasures_found");
-                        stats.rareTreasuresFound = resultSet.getLong("rare_treasures_found");
-                        stats.epicTreasuresFound = resultSet.getLong("epic_treasures_found");
-                        stats.legendaryTreasuresFound = resultSet.getLong("legendary_treasures_found");
-                        stats.mythicTreasuresFound = resultSet.getLong("mythic_treasures_found");
-                        stats.minutesPlayed = resultSet.getLong("minutes_played");
-                        stats.luckEndTime = resultSet.getLong("luck_end_time");
-                        stats.luckMultiplier = resultSet.getDouble("luck_multiplier");
-                        stats.queuedLuckEndTime = resultSet.getLong("queued_luck_end_time");
-                        stats.queuedLuckMultiplier = resultSet.getDouble("queued_luck_multiplier");
-                        stats.treasureSpawningEnabled = resultSet.getBoolean("treasure_spawning_enabled");
+                        stats.setTotalBlocksMined(resultSet.getLong("total_blocks_mined"));
+                        stats.setCommonTreasuresFound(resultSet.getLong("common_treasures_found"));
+                        stats.setRareTreasuresFound(resultSet.getLong("rare_treasures_found"));
+                        stats.setEpicTreasuresFound(resultSet.getLong("epic_treasures_found"));
+                        stats.setLegendaryTreasuresFound(resultSet.getLong("legendary_treasures_found"));
+                        stats.setMythicTreasuresFound(resultSet.getLong("mythic_treasures_found"));
+                        stats.setMinutesPlayed(resultSet.getLong("minutes_played"));
+                        stats.setLuckEndTime(resultSet.getLong("luck_end_time"));
+                        stats.setLuckMultiplier(resultSet.getDouble("luck_multiplier"));
+                        stats.setQueuedLuckEndTime(resultSet.getLong("queued_luck_end_time"));
+                        stats.setQueuedLuckMultiplier(resultSet.getDouble("queued_luck_multiplier"));
+                        stats.setTreasureSpawningEnabled(resultSet.getBoolean("treasure_spawning_enabled"));
+                        stats.setJournalSequence(resultSet.getLong("journal_seq"));
                         
                         return stats;
                     } else {
@@ -120,39 +160,17 @@ public class SqliteStatsStorage implements StatsStorage {
                 }
             } catch (SQLException e) {
                 plugin.getLogger().severe("Error loading player stats from SQLite: " + e.getMessage());
-                return new StatsManager.PlayerStats();
+                // Fail the load rather than hand back an empty row that would overwrite the stored one
+                throw new RuntimeException(e);
             }
         });
     }
     
     @Override
     public CompletableFuture<Void> savePlayerStats(UUID uuid, StatsManager.PlayerStats stats) {
-        return CompletableFuture.runAsync(() -> {
-            String sql = """
-                INSERT OR REPLACE INTO player_stats (
-                    uuid, total_blocks_mined, common_treasures_found, rare_treasures_found,
-                    epic_treasures_found, legendary_treasures_found, mythic_treasures_found,
-                    minutes_played, luck_end_time, luck_multiplier, queued_luck_end_time,
-                    queued_luck_multiplier, treasure_spawning_enabled
-                ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-                """;
-            
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                statement.setString(1, uuid.toString());
-                statement.setLong(2, stats.totalBlocksMined);
-                statement.setLong(3, stats.commonTreasuresFound);
-                statement.setLong(4, stats.rareTreasuresFound);
-                statement.setLong(5, stats.epicTreasuresFound);
-                statement.setLong(6, stats.legendaryTreasuresFound);
-                statement.setLong(7, stats.mythicTreasuresFound);
-                statement.setLong(8, stats.minutesPlayed);
-                statement.setLong(9, stats.luckEndTime);
-                statement.setDouble(10, stats.luckMultiplier);
-                statement.setLong(11, stats.queuedLuckEndTime);
-                statement.setDouble(12, stats.queuedLuckMultiplier);
-                statement.setBoolean(13, stats.treasureSpawningEnabled);
-                
-                statement.executeUpdate();
+        return executor.runAsync(() -> {
+            try {
+                writeRow(uuid, stats);
             } catch (SQLException e) {
                 plugin.getLogger().severe("Error saving player stats to SQLite: " + e.getMessage());
                 throw new RuntimeException(e);
@@ -160,9 +178,37 @@ public class SqliteStatsStorage implements StatsStorage {
         });
     }
     
+    /**
+     * Write one row on the calling (writer) thread
+     */
+    private void writeRow(UUID uuid, StatsManager.PlayerStats stats) throws SQLException {
+        bindRow(uuid, stats);
+        upsertStatement.executeUpdate();
+    }
+    
+    /**
+     * Bind a player's stats to the cached upsert statement
+     */
+    private void bindRow(UUID uuid, StatsManager.PlayerStats stats) throws SQLException {
+        upsertStatement.setString(1, uuid.toString());
+        upsertStatement.setLong(2, stats.getTotalBlocksMined());
+        upsertStatement.setLong(3, stats.getCommonTreasuresFound());
+        upsertStatement.setLong(4, stats.getRareTreasuresFound());
+        upsertStatement.setLong(5, stats.getEpicTreasuresFound());
+        upsertStatement.setLong(6, stats.getLegendaryTreasuresFound());
+        upsertStatement.setLong(7, stats.getMythicTreasuresFound());
+        upsertStatement.setLong(8, stats.getMinutesPlayed());
+        upsertStatement.setLong(9, stats.getLuckEndTime());
+        upsertStatement.setDouble(10, stats.getLuckMultiplier());
+        upsertStatement.setLong(11, stats.getQueuedLuckEndTime());
+        upsertStatement.setDouble(12, stats.getQueuedLuckMultiplier());
+        upsertStatement.setBoolean(13, stats.isTreasureSpawningEnabled());
+        upsertStatement.setLong(14, stats.getJournalSequence());
+    }
+    
     @Override
     public CompletableFuture<Map<UUID, StatsManager.PlayerStats>> loadAllPlayerStats() {
-        return CompletableFuture.supplyAsync(() -> {
+        return executor.supplyAsync(() -> {
             Map<UUID, StatsManager.PlayerStats> allStats = new HashMap<>();
             String sql = "SELECT * FROM player_stats";
             
@@ -174,18 +220,19 @@ public class SqliteStatsStorage implements StatsStorage {
                         UUID uuid = UUID.fromString(resultSet.getString("uuid"));
                         StatsManager.PlayerStats stats = new StatsManager.PlayerStats();
                         
-                        stats.totalBlocksMined = resultSet.getLong("total_blocks_mined");
-                        stats.commonTreasuresFound = resultSet.getLong("common_treasures_found");
-                        stats.rareTreasuresFound = resultSet.getLong("rare_treasures_found");
-                        stats.epicTreasuresFound = resultSet.getLong("epic_treasures_found");
-                        stats.legendaryTreasuresFound = resultSet.getLong("legendary_treasures_found");
-                        stats.mythicTreasuresFound = resultSet.getLong("mythic_treasures_found");
-                        stats.minutesPlayed = resultSet.getLong("minutes_played");
-                        stats.luckEndTime = resultSet.getLong("luck_end_time");
-                        stats.luckMultiplier = resultSet.getDouble("luck_multiplier");
-                        stats.queuedLuckEndTime = resultSet.getLong("queued_luck_end_time");
-                        stats.queuedLuckMultiplier = resultSet.getDouble("queued_luck_multiplier");
-                        stats.treasureSpawningEnabled = resultSet.getBoolean("treasure_spawning_enabled");
+                        stats.setTotalBlocksMined(resultSet.getLong("total_blocks_mined"));
+                        stats.setCommonTreasuresFound(resultSet.getLong("common_treasures_found"));
+                        stats.setRareTreasuresFound(resultSet.getLong("rare_treasures_found"));
+                        stats.setEpicTreasuresFound(resultSet.getLong("epic_treasures_found"));
+                        stats.setLegendaryTreasuresFound(resultSet.getLong("legendary_treasures_found"));
+                        stats.setMythicTreasuresFound(resultSet.getLong("mythic_treasures_found"));
+                        stats.setMinutesPlayed(resultSet.getLong("minutes_played"));
+                        stats.setLuckEndTime(resultSet.getLong("luck_end_time"));
+                        stats.setLuckMultiplier(resultSet.getDouble("luck_multiplier"));
+                        stats.setQueuedLuckEndTime(resultSet.getLong("queued_luck_end_time"));
+                        stats.setQueuedLuckMultiplier(resultSet.getDouble("queued_luck_multiplier"));
+                        stats.setTreasureSpawningEnabled(resultSet.getBoolean("treasure_spawning_enabled"));
+                        stats.setJournalSequence(resultSet.getLong("journal_seq"));
                         
                         allStats.put(uuid, stats);
                     } catch (IllegalArgumentException e) {
@@ -204,18 +251,30 @@ public class SqliteStatsStorage implements StatsStorage {
     
     @Override
     public CompletableFuture<Void> saveAllPlayerStats(Map<UUID, StatsManager.PlayerStats> allStats) {
-        return CompletableFuture.runAsync(() -> {
+        return executor.runAsync(() -> {
             try {
                 connection.setAutoCommit(false); // Start transaction
                 
+                // One transaction, sent to the driver in chunks of batchSize rows
+                int pending = 0;
                 for (Map.Entry<UUID, StatsManager.PlayerStats> entry : allStats.entrySet()) {
-                    savePlayerStats(entry.getKey(), entry.getValue()).join();
+                    bindRow(entry.getKey(), entry.getValue());
+                    upsertStatement.addBatch();
+                    
+                    if (++pending >= batchSize) {
+                        upsertStatement.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    upsertStatement.executeBatch();
                 }
                 
                 connection.commit();
                 connection.setAutoCommit(true);
             } catch (SQLException e) {
                 try {
+                    upsertStatement.clearBatch();
                     connection.rollback();
                     connection.setAutoCommit(true);
                 } catch (SQLException rollbackEx) {
@@ -227,6 +286,19 @@ public class SqliteStatsStorage implements StatsStorage {
         });
     }
     
+    @Override
+    public CompletableFuture<Long> loadJournalSequence() {
+        return executor.supplyAsync(() -> {
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("SELECT MAX(journal_seq) FROM player_stats")) {
+                return resultSet.next() ? resultSet.getLong(1) : 0L;
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Error loading journal sequence from SQLite: " + e.getMessage());
+                throw new RuntimeException(e);
+            }
+        });
+    }
+    
     @Override
     public boolean isAvailable() {
         try {
@@ -240,4 +312,9 @@ public class SqliteStatsStorage implements StatsStorage {
     public String getStorageType() {
         return "SQLite";
     }
+    
+    @Override
+    public int getQueuedTasks() {
+        return executor.getQueuedTasks();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,404 @@
+package me.itzrenzo.infernaltresures.managers;
+
+import me.itzrenzo.infernaltresures.InfernalTresures;
+import me.itzrenzo.infernaltresures.models.Rarity;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Append-only journal of stat counter changes (uuid, field, delta), plus absolute resets from admin commands.
+ * Changes are buffered in memory and group-committed to the current segment file on an interval.
+ * Segment ids are sequence numbers: when stats are flushed the segment is rotated and every saved row
+ * records the closed id, so replay skips segments a row already contains and is safe to repeat.
+ * A segment is deleted once every player in it has been saved at or past it.
+ */
+public class StatsJournal {
+    
+    // Delta array layout: blocks mined, minutes played, then one slot per rarity
+    public static final int FIELD_BLOCKS_MINED = 0;
+    public static final int FIELD_MINUTES_PLAYED = 1;
+    private static final int FIELD_RARITY_OFFSET = 2;
+    private static final int FIELD_COUNT = FIELD_RARITY_OFFSET + Rarity.values().length;
+    // Set on the field byte of a record holding an absolute value instead of a delta
+    private static final int RESET_FLAG = 0x80;
+    
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    
+    private final InfernalTresures plugin;
+    private final File folder;
+    private final PersistenceExecutor executor;
+    
+    // Changes recorded since the last group commit; guarded by this
+    private Map<UUID, Delta> pending = new HashMap<>();
+    // Players with changes in the current segment; guarded by this
+    private Set<UUID> segmentPlayers = new HashSet<>();
+    private long segment;
+    // Batches of closed segments the writer could not take yet; guarded by this
+    private final List<Batch> unqueued = new ArrayList<>();
+    // Closed segments and the players not yet saved at or past them; guarded by this
+    private final TreeMap<Long, Set<UUID>> outstanding = new TreeMap<>();
+    // Segments with nothing left unsaved whose delete could not be queued yet; guarded by this
+    private final List<Long> unreleased = new ArrayList<>();
+    
+    /**
+     * @param appliedSequence the highest segment any stored row already contains
+     */
+    public StatsJournal(InfernalTresures plugin, long appliedSequence) {
+        this.plugin = plugin;
+        this.folder = new File(plugin.getDataFolder(), "journal");
+        this.executor = PersistenceExecutor.singleWriter(plugin, "Journal");
+        
+        if (!folder.exists()) {
+            folder.mkdirs();
+        }
+        
+        // Never append to a segment left over from a previous run, nor reuse a sequence storage has seen
+        long highest = appliedSequence;
+        for (long existing : listSegments()) {
+            highest = Math.max(highest, existing);
+        }
+        this.segment = highest + 1;
+    }
+    
+    public static int rarityField(Rarity rarity) {
+        return FIELD_RARITY_OFFSET + rarity.ordinal();
+    }
+    
+    /**
+     * Record a counter change; it is written to disk on the next group commit
+     */
+    public synchronized void record(UUID uuid, int field, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        pending.computeIfAbsent(uuid, k -> new Delta()).add(field, delta);
+        segmentPlayers.add(uuid);
+    }
+    
+    /**
+     * Record a counter being set outright; replay drops earlier changes to it
+     */
+    public synchronized void reset(UUID uuid, int field, long value) {
+        pending.computeIfAbsent(uuid, k -> new Delta()).reset(field, value);
+        segmentPlayers.add(uuid);
+    }
+    
+    /**
+     * Write everything recorded since the last commit to its segment and fsync it
+     */
+    public synchronized void commit() {
+        Iterator<Batch> iterator = unqueued.iterator();
+        while (iterator.hasNext()) {
+            Batch batch = iterator.next();
+            if (!queueAppend(batch.segment, batch.changes)) {
+                break;
+            }
+            iterator.remove();
+        }
+        
+        if (!pending.isEmpty()) {
+            Map<UUID, Delta> batch = pending;
+            pending = new HashMap<>();
+            if (!queueAppend(segment, batch)) {
+                // The writer queue is full; keep the batch for the next commit
+                pending = batch;
+            }
+        }
+        deleteReleased();
+    }
+    
+    private boolean queueAppend(long id, Map<UUID, Delta> batch) {
+        return !executor.runAsync(() -> append(id, batch)).isCompletedExceptionally();
+    }
+    
+    /**
+     * Close the current segment and start a new one.
+     * Returns the closed segment's sequence number, which rows saved in the same tick record.
+     */
+    public synchronized long rotate() {
+        commit();
+        if (!pending.isEmpty()) {
+            // Still belongs to the closed segment; retried by later commits
+            unqueued.add(new Batch(segment, pending));
+            pending = new HashMap<>();
+        }
+        
+        long closed = segment;
+        if (!segmentPlayers.isEmpty()) {
+            outstanding.put(closed, segmentPlayers);
+        }
+        segment++;
+        segmentPlayers = new HashSet<>();
+        return closed;
+    }
+    
+    /**
+     * Note that these players' rows are in storage covering every segment up to the given one,
+     * and delete the closed segments that no longer hold anything unsaved
+     */
+    public synchronized void saved(Collection<UUID> players, long sequence) {
+        Iterator<Map.Entry<Long, Set<UUID>>> iterator = outstanding.headMap(sequence, true).entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Set<UUID>> entry = iterator.next();
+            entry.getValue().removeAll(players);
+            if (entry.getValue().isEmpty()) {
+                long id = entry.getKey();
+                iterator.remove();
+                // Anything not yet on disk for it is in storage now
+                unqueued.removeIf(batch -> batch.segment == id);
+                unreleased.add(id);
+            }
+        }
+        commit();
+    }
+    
+    /**
+     * Queue the deletes of segments with nothing left unsaved
+     */
+    private void deleteReleased() {
+        Iterator<Long> iterator = unreleased.iterator();
+        while (iterator.hasNext()) {
+            long id = iterator.next();
+            if (executor.runAsync(() -> deleteSegment(id)).isCompletedExceptionally()) {
+                return;
+            }
+            iterator.remove();
+        }
+    }
+    
+    private void deleteSegment(long id) {
+        File file = segmentFile(id);
+        if (file.exists() && !file.delete()) {
+            plugin.getLogger().warning("Could not delete stats journal segment " + file.getName());
+        }
+    }
+    
+    /**
+     * Read every segment left on disk, oldest first, with each player's changes in that segment.
+     * A record cut short by a crash ends that segment.
+     */
+    public NavigableMap<Long, Map<UUID, Delta>> readSegments() {
+        NavigableMap<Long, Map<UUID, Delta>> segments = new TreeMap<>();
+        
+        for (long id : listSegments()) {
+            File file = segmentFile(id);
+            Map<UUID, Delta> changes = new HashMap<>();
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                while (true) {
+                    UUID uuid;
+                    int field;
+                    long value;
+                    try {
+                        uuid = new UUID(in.readLong(), in.readLong());
+                        field = in.readUnsignedByte();
+                        value = in.readLong();
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    
+                    boolean reset = (field & RESET_FLAG) != 0;
+                    field &= ~RESET_FLAG;
+                    if (field >= FIELD_COUNT) {
+                        continue;
+                    }
+                    Delta delta = changes.computeIfAbsent(uuid, k -> new Delta());
+                    if (reset) {
+                        delta.reset(field, value);
+                    } else {
+                        delta.add(field, value);
+                    }
+                }
+            } catch (IOException e) {
+                plugin.getLogger().severe("Error reading stats journal segment " + file.getName() + ": " + e.getMessage());
+            }
+            segments.put(id, changes);
+        }
+        
+        return segments;
+    }
+    
+    /**
+     * Delete the segments that existed before this run started, after they have been replayed
+     */
+    public void deleteReplayed() {
+        long current;
+        synchronized (this) {
+            current = segment;
+        }
+        for (long id : listSegments()) {
+            if (id < current && !segmentFile(id).delete()) {
+                plugin.getLogger().warning("Could not delete replayed stats journal segment " + id);
+            }
+        }
+    }
+    
+    /**
+     * Commit whatever is left and wait for the journal thread to finish
+     */
+    public void close() {
+        commit();
+        executor.drain();
+        
+        // The writer has stopped, so finish whatever it could not take on this thread
+        synchronized (this) {
+            for (Batch batch : unqueued) {
+                append(batch.segment, batch.changes);
+            }
+            unqueued.clear();
+            if (!pending.isEmpty()) {
+                append(segment, pending);
+                pending = new HashMap<>();
+            }
+            unreleased.forEach(this::deleteSegment);
+            unreleased.clear();
+        }
+    }
+    
+    /**
+     * Get the number of journal writes waiting to run
+     */
+    public int getQueuedTasks() {
+        return executor.getQueuedTasks();
+    }
+    
+    /**
+     * Apply journaled changes onto a player's stats
+     */
+    public static void apply(StatsManager.PlayerStats stats, Delta delta) {
+        stats.setTotalBlocksMined(delta.applyTo(FIELD_BLOCKS_MINED, stats.getTotalBlocksMined()));
+        stats.setMinutesPlayed(delta.applyTo(FIELD_MINUTES_PLAYED, stats.getMinutesPlayed()));
+        for (Rarity rarity : Rarity.values()) {
+            stats.setTreasuresByRarity(rarity, delta.applyTo(rarityField(rarity), stats.getTreasuresByRarity(rarity)));
+        }
+    }
+    
+    private void append(long id, Map<UUID, Delta> batch) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            for (Map.Entry<UUID, Delta> entry : batch.entrySet()) {
+                Delta delta = entry.getValue();
+                for (int field = 0; field < FIELD_COUNT; field++) {
+                    boolean reset = delta.isReset(field);
+                    if (!reset && delta.values[field] == 0) {
+                        continue;
+                    }
+                    out.writeLong(entry.getKey().getMostSignificantBits());
+                    out.writeLong(entry.getKey().getLeastSignificantBits());
+                    out.writeByte(reset ? field | RESET_FLAG : field);
+                    out.writeLong(delta.values[field]);
+                }
+            }
+        } catch (IOException e) {
+            // Cannot happen for an in-memory stream
+            throw new IllegalStateException(e);
+        }
+        
+        try (FileChannel channel = FileChannel.open(segmentFile(id).toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            // One fsync per group commit
+            channel.force(false);
+        } catch (IOException e) {
+            plugin.getLogger().severe("Error writing stats journal: " + e.getMessage());
+        }
+    }
+    
+    private List<Long> listSegments() {
+        List<Long> ids = new ArrayList<>();
+        File[] files = folder.listFiles((dir, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+        if (files == null) {
+            return ids;
+        }
+        
+        for (File file : files) {
+            String name = file.getName();
+            try {
+                ids.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+            } catch (NumberFormatException e) {
+                plugin.getLogger().warning("Ignoring unexpected file in stats journal folder: " + name);
+            }
+        }
+        ids.sort(null);
+        return ids;
+    }
+    
+    private File segmentFile(long id) {
+        return new File(folder, SEGMENT_PREFIX + id + SEGMENT_SUFFIX);
+    }
+    
+    /**
+     * One player's changes: a delta per field, or an absolute value for fields that were reset
+     */
+    public static final class Delta {
+        private final long[] values = new long[FIELD_COUNT];
+        private int resets;
+        
+        private void add(int field, long delta) {
+            values[field] += delta;
+        }
+        
+        private void reset(int field, long value) {
+            values[field] = value;
+            resets |= 1 << field;
+        }
+        
+        private boolean isReset(int field) {
+            return (resets & (1 << field)) != 0;
+        }
+        
+        /**
+         * Apply a later segment's changes on top of these
+         */
+        public void merge(Delta later) {
+            for (int field = 0; field < FIELD_COUNT; field++) {
+                if (later.isReset(field)) {
+                    reset(field, later.values[field]);
+                } else {
+                    add(field, later.values[field]);
+                }
+            }
+        }
+        
+        private long applyTo(int field, long stored) {
+            return isReset(field) ? values[field] : stored + values[field];
+        }
+    }
+    
+    /**
+     * Changes for a closed segment still waiting to be appended
+     */
+    private static final class Batch {
+        private final long segment;
+        private final Map<UUID, Delta> changes;
+        
+        private Batch(long segment, Map<UUID, Delta> changes) {
+            this.segment = segment;
+            this.changes = changes;
+        }
+    }
+}
@@ -2,26 +2,170 @@ package me.itzrenzo.infernaltresures.managers;
 
 import me.itzrenzo.infernaltresures.InfernalTresures;
 import me.itzrenzo.infernaltresures.models.Rarity;
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
 
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 public class StatsManager {
     
+    // Delay before a failed stats load is tried again
+    private static final long LOAD_RETRY_TICKS = 100L;
+    
     private final InfernalTresures plugin;
-    private final Map<UUID, PlayerStats> playerStats = new HashMap<>();
-    private final Map<UUID, Long> playerJoinTimes = new HashMap<>();
+    // Stats of online players, loaded when they join
+    private final Map<UUID, PlayerStats> playerStats = new ConcurrentHashMap<>();
+    // Recently used stats of offline players, in access order (eldest first); guarded by itself
+    private final LinkedHashMap<UUID, CachedStats> offlineCache = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<UUID, Long> playerJoinTimes = new ConcurrentHashMap<>();
+    // Loads in flight, completed on the main thread once the row is merged
+    private final Map<UUID, CompletableFuture<PlayerStats>> pendingLoads = new ConcurrentHashMap<>();
     private StatsStorage storage;
+    private int offlineCacheMaxSize;
+    private long offlineCacheExpireMillis;
+    private BukkitTask cacheExpiryTask;
+    // Write-behind journal of counter deltas, null when disabled
+    private StatsJournal journal;
+    private BukkitTask journalCommitTask;
+    private BukkitTask compactTask;
     
     public StatsManager(InfernalTresures plugin) {
         this.plugin = plugin;
         initializeStorage();
+        initializeJournal();
+        loadCacheSettings();
         loadStats();
     }
     
+    private void loadCacheSettings() {
+        offlineCacheMaxSize = Math.max(0, plugin.getConfig().getInt("database.cache.offline-max-size", 500));
+        offlineCacheExpireMillis = Math.max(1, plugin.getConfig().getLong("database.cache.offline-expire-minutes", 10)) * 60_000L;
+        
+        if (cacheExpiryTask != null) {
+            cacheExpiryTask.cancel();
+        }
+        // Sweep expired offline entries once a minute
+        cacheExpiryTask = Bukkit.getScheduler().runTaskTimer(plugin, this::evictOfflineStats, 1200L, 1200L);
+    }
+    
+    private void initializeJournal() {
+        if (!plugin.getConfig().getBoolean("database.journal.enabled", true)) {
+            return;
+        }
+        
+        // Segment numbers continue past what storage has applied, so storage has to answer first
+        if (storage == null || !storage.isAvailable()) {
+            plugin.getLogger().warning("Storage not available, stats journal disabled and kept for the next start");
+            return;
+        }
+        long appliedSequence;
+        try {
+            appliedSequence = storage.loadJournalSequence().join();
+        } catch (Exception e) {
+            plugin.getLogger().severe("Could not read the stats journal sequence, stats journal disabled: " + e.getMessage());
+            return;
+        }
+        
+        journal = new StatsJournal(plugin, appliedSequence);
+        replayJournal();
+        scheduleJournalTasks();
+    }
+    
+    /**
+     * Apply changes left in the journal by a crash to storage before anyone's stats are loaded.
+     * Each row only takes segments newer than the one it was last saved with, so replaying twice is harmless.
+     */
+    private void replayJournal() {
+        NavigableMap<Long, Map<UUID, StatsJournal.Delta>> segments = journal.readSegments();
+        Set<UUID> players = new HashSet<>();
+        segments.values().forEach(changes -> players.addAll(changes.keySet()));
+        if (players.isEmpty()) {
+            journal.deleteReplayed();
+            return;
+        }
+        
+        // Every row must load; applying changes to a missing row would overwrite what is stored
+        Map<UUID, CompletableFuture<PlayerStats>> loads = new HashMap<>();
+        for (UUID uuid : players) {
+            loads.put(uuid, storage.loadPlayerStats(uuid));
+        }
+        
+        Map<UUID, PlayerStats> recovered = new HashMap<>();
+        int failed = 0;
+        for (Map.Entry<UUID, CompletableFuture<PlayerStats>> entry : loads.entrySet()) {
+            PlayerStats stats;
+            try {
+                stats = entry.getValue().join();
+            } catch (Exception e) {
+                failed++;
+                continue;
+            }
+            
+            StatsJournal.Delta delta = new StatsJournal.Delta();
+            long applied = stats.getJournalSequence();
+            for (Map.Entry<Long, Map<UUID, StatsJournal.Delta>> segment : segments.tailMap(applied, false).entrySet()) {
+                StatsJournal.Delta changes = segment.getValue().get(entry.getKey());
+                if (changes != null) {
+                    delta.merge(changes);
+                    applied = segment.getKey();
+                }
+            }
+            if (applied > stats.getJournalSequence()) {
+                StatsJournal.apply(stats, delta);
+                stats.setJournalSequence(applied);
+                recovered.put(entry.getKey(), stats);
+            }
+        }
+        if (failed > 0) {
+            plugin.getLogger().severe("Could not load stats for " + failed + " players, keeping the stats journal for the next start");
+            return;
+        }
+        
+        if (!recovered.isEmpty()) {
+            try {
+                // Segments are only deleted once the recovered rows are confirmed written
+                storage.saveAllPlayerStats(recovered).join();
+            } catch (Exception e) {
+                plugin.getLogger().severe("Error saving recovered stats, keeping the stats journal for the next start: " + e.getMessage());
+                return;
+            }
+            plugin.getLogger().info("Recovered unsaved statistics for " + recovered.size() + " players from the stats journal");
+        }
+        journal.deleteReplayed();
+    }
+    
+    private void scheduleJournalTasks() {
+        if (journal == null) {
+            return;
+        }
+        
+        if (journalCommitTask != null) {
+            journalCommitTask.cancel();
+        }
+        if (compactTask != null) {
+            compactTask.cancel();
+        }
+        
+        // Group commit: buffered deltas hit the disk together once per interval
+        long commitTicks = Math.max(1, plugin.getConfig().getLong("database.journal.commit-interval-ticks", 20));
+        journalCommitTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, journal::commit, commitTicks, commitTicks);
+        
+        // Compaction: save dirty rows to storage so the journal can be truncated
+        long compactTicks = Math.max(1, plugin.getConfig().getLong("database.journal.compact-interval-minutes", 5)) * 1200L;
+        compactTask = Bukkit.getScheduler().runTaskTimer(plugin, this::saveStats, compactTicks, compactTicks);
+    }
+    
     private void initializeStorage() {
         String storageType = plugin.getConfig().getString("database.type", "YML").toUpperCase();
         
@@ -92,41 +236,145 @@ public class StatsManager {
         }
     }
     
+    /**
+     * Load stats for players that are already online (plugin reloads).
+     * Everyone else is loaded on join or on demand.
+     */
     private void loadStats() {
         if (storage == null || !storage.isAvailable()) {
             plugin.getLogger().warning("Storage not available, cannot load stats");
             return;
         }
         
-        storage.loadAllPlayerStats().thenAccept(loadedStats -> {
-            playerStats.clear();
-            playerStats.putAll(loadedStats);
-            plugin.getLogger().info("Loaded statistics for " + playerStats.size() + " players from " + storage.getStorageType());
-        }).exceptionally(throwable -> {
-            plugin.getLogger().severe("Error loading player stats: " + throwable.getMessage());
-            return null;
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            onPlayerJoin(player);
+        }
+    }
+    
+    /**
+     * Load a player's stats in the background into the given placeholder.
+     * Anything recorded before the load finishes is kept on top of the stored values.
+     * A failed load leaves the placeholder unsaveable and is retried while it is still in use.
+     */
+    private CompletableFuture<PlayerStats> loadPlayerStatsAsync(UUID uuid, PlayerStats placeholder) {
+        CompletableFuture<PlayerStats> result = new CompletableFuture<>();
+        pendingLoads.put(uuid, result);
+        
+        storage.loadPlayerStats(uuid).whenComplete((loaded, throwable) -> {
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                pendingLoads.remove(uuid, result);
+                if (throwable != null) {
+                    plugin.getLogger().severe("Error loading stats for player " + uuid + ", retrying in "
+                        + (LOAD_RETRY_TICKS / 20) + "s: " + throwable.getMessage());
+                    Bukkit.getScheduler().runTaskLater(plugin, () -> retryLoad(uuid, placeholder), LOAD_RETRY_TICKS);
+                    result.completeExceptionally(throwable);
+                    return;
+                }
+                placeholder.mergeLoaded(loaded);
+                result.complete(placeholder);
+            });
         });
+        return result;
+    }
+    
+    private void retryLoad(UUID uuid, PlayerStats placeholder) {
+        if (placeholder.isLoaded() || pendingLoads.containsKey(uuid) || !isTracked(uuid, placeholder)) {
+            return;
+        }
+        if (storage == null || !storage.isAvailable()) {
+            // Nothing to load from; the row stays unsaveable so stored values are never overwritten
+            plugin.getLogger().warning("Storage not available, stats for player " + uuid + " stay unsaved");
+            return;
+        }
+        loadPlayerStatsAsync(uuid, placeholder);
+    }
+    
+    /**
+     * Whether this exact stats object is still held for the player, online or in the offline cache
+     */
+    private boolean isTracked(UUID uuid, PlayerStats stats) {
+        if (playerStats.get(uuid) == stats) {
+            return true;
+        }
+        synchronized (offlineCache) {
+            CachedStats cached = offlineCache.get(uuid);
+            return cached != null && cached.stats == stats;
+        }
     }
 
+    /**
+     * Save only the players whose stats changed since the last save
+     */
     public void saveStats() {
+        flushDirtyStats();
+    }
+    
+    /**
+     * Write every dirty row to storage and clear its flag.
+     * Rows that fail to save are flagged again so the next flush retries them.
+     */
+    public CompletableFuture<Void> flushDirtyStats() {
+        return flushDirtyStats(new HashMap<>());
+    }
+    
+    /**
+     * Flush every dirty row together with rows already taken out of the caches.
+     * Every write goes through here so each saved row records the journal segment it covers.
+     */
+    private CompletableFuture<Void> flushDirtyStats(Map<UUID, PlayerStats> dirtyStats) {
         if (storage == null || !storage.isAvailable()) {
             plugin.getLogger().warning("Storage not available, cannot save stats");
-            return;
+            return CompletableFuture.completedFuture(null);
         }
         
-        storage.saveAllPlayerStats(new HashMap<>(playerStats)).exceptionally(throwable -> {
-            plugin.getLogger().severe("Error saving player stats: " + throwable.getMessage());
-            return null;
-        });
+        // Rotate in the same tick the rows are collected, so each row holds exactly the segments up to the closed one
+        long sequence = journal != null ? journal.rotate() : 0;
+        
+        for (Map.Entry<UUID, PlayerStats> entry : playerStats.entrySet()) {
+            collectDirty(entry.getKey(), entry.getValue(), dirtyStats);
+        }
+        synchronized (offlineCache) {
+            for (Map.Entry<UUID, CachedStats> entry : offlineCache.entrySet()) {
+                collectDirty(entry.getKey(), entry.getValue().stats, dirtyStats);
+            }
+        }
+        
+        return writeStats(dirtyStats, sequence);
     }
     
-    public void savePlayerStatsAsync(UUID uuid, PlayerStats stats) {
-        if (storage == null || !storage.isAvailable()) {
-            return;
+    private void collectDirty(UUID uuid, PlayerStats stats, Map<UUID, PlayerStats> dirtyStats) {
+        // Rows that never finished loading must not overwrite what is stored
+        if (stats.isDirty() && stats.isLoaded()) {
+            // Clear before handing off so changes made during the write flag the row again
+            stats.clearDirty();
+            dirtyStats.put(uuid, stats);
+        }
+    }
+    
+    private CompletableFuture<Void> writeStats(Map<UUID, PlayerStats> dirtyStats, long sequence) {
+        if (dirtyStats.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
         }
         
-        storage.savePlayerStats(uuid, stats).exceptionally(throwable -> {
-            plugin.getLogger().severe("Error saving stats for player " + uuid + ": " + throwable.getMessage());
+        // Storage works on detached copies so the live objects can keep changing
+        Map<UUID, PlayerStats> snapshots = new HashMap<>();
+        for (Map.Entry<UUID, PlayerStats> entry : dirtyStats.entrySet()) {
+            PlayerStats snapshot = entry.getValue().snapshot();
+            if (journal != null) {
+                // Written in the same upsert, so replay knows which segments this row already holds
+                snapshot.setJournalSequence(sequence);
+            }
+            snapshots.put(entry.getKey(), snapshot);
+        }
+        
+        return storage.saveAllPlayerStats(snapshots).handle((ignored, throwable) -> {
+            if (throwable != null) {
+                // The rows stay dirty and their segments stay on disk until a later flush saves them
+                plugin.getLogger().severe("Error saving player stats: " + throwable.getMessage());
+                dirtyStats.values().forEach(PlayerStats::markDirty);
+            } else if (journal != null) {
+                journal.saved(dirtyStats.keySet(), sequence);
+            }
             return null;
         });
     }
@@ -135,15 +383,32 @@ public class StatsManager {
      * Shutdown the storage system and save all data
      */
     public void shutdown() {
+        if (cacheExpiryTask != null) {
+            cacheExpiryTask.cancel();
+        }
+        if (journalCommitTask != null) {
+            journalCommitTask.cancel();
+        }
+        if (compactTask != null) {
+            compactTask.cancel();
+        }
+        
+        // Queue the final flush (the plugin is disabling, so a full queue waits rather than rejects it),
+        // then block until the storage executor has drained it
         saveStats();
         
         if (storage != null) {
-            storage.close().thenRun(() -> {
+            try {
+                storage.close().join();
                 plugin.getLogger().info("Storage system shutdown complete");
-            }).exceptionally(throwable -> {
-                plugin.getLogger().warning("Error during storage shutdown: " + throwable.getMessage());
-                return null;
-            });
+            } catch (Exception e) {
+                plugin.getLogger().warning("Error during storage shutdown: " + e.getMessage());
+            }
+        }
+        
+        // Storage has drained, so every segment release is queued by now
+        if (journal != null) {
+            journal.close();
         }
     }
     
@@ -151,9 +416,27 @@ public class StatsManager {
         UUID uuid = player.getUniqueId();
         playerJoinTimes.put(uuid, System.currentTimeMillis());
         
-        // Initialize stats if player doesn't exist
-        if (!playerStats.containsKey(uuid)) {
-            playerStats.put(uuid, new PlayerStats());
+        if (playerStats.containsKey(uuid)) {
+            return;
+        }
+        
+        // Reuse the cached copy if this player was looked up while offline
+        CachedStats cached;
+        synchronized (offlineCache) {
+            cached = offlineCache.remove(uuid);
+        }
+        if (cached != null) {
+            playerStats.put(uuid, cached.stats);
+            return;
+        }
+        
+        // Track into a placeholder right away and fill it in once storage answers
+        PlayerStats placeholder = new PlayerStats();
+        placeholder.loaded = false;
+        playerStats.put(uuid, placeholder);
+        
+        if (storage != null && storage.isAvailable()) {
+            loadPlayerStatsAsync(uuid, placeholder);
         }
     }
     
@@ -168,34 +451,144 @@ public class StatsManager {
             
             // Add to total minutes played
             PlayerStats stats = getPlayerStats(uuid);
-            stats.minutesPlayed += minutesPlayed;
+            stats.addMinutesPlayed(minutesPlayed);
+            stats.markDirty();
+            journal(uuid, StatsJournal.FIELD_MINUTES_PLAYED, minutesPlayed);
         }
         
-        // Save stats when player leaves
-        saveStats();
+        // Keep the stats around briefly in case the player comes back or is looked up
+        PlayerStats stats = playerStats.remove(uuid);
+        if (stats != null) {
+            synchronized (offlineCache) {
+                offlineCache.put(uuid, new CachedStats(stats));
+            }
+            evictOfflineStats();
+        }
+        
+        // Save whatever changed since the last flush
+        flushDirtyStats();
     }
     
     public void onBlockMined(Player player) {
         UUID uuid = player.getUniqueId();
         PlayerStats stats = getPlayerStats(uuid);
-        stats.totalBlocksMined++;
+        stats.incrementBlocksMined();
+        stats.markDirty();
+        journal(uuid, StatsJournal.FIELD_BLOCKS_MINED, 1);
     }
     
     public void onTreasureFound(Player player, Rarity rarity) {
         UUID uuid = player.getUniqueId();
         PlayerStats stats = getPlayerStats(uuid);
         
-        switch (rarity) {
-            case COMMON -> stats.commonTreasuresFound++;
-            case RARE -> stats.rareTreasuresFound++;
-            case EPIC -> stats.epicTreasuresFound++;
-            case LEGENDARY -> stats.legendaryTreasuresFound++;
-            case MYTHIC -> stats.mythicTreasuresFound++;
+        stats.incrementTreasuresFound(rarity);
+        stats.markDirty();
+        journal(uuid, StatsJournal.rarityField(rarity), 1);
+    }
+    
+    private void journal(UUID uuid, int field, long delta) {
+        if (journal != null) {
+            journal.record(uuid, field, delta);
+        }
+    }
+    
+    private void journalReset(UUID uuid, int field, long value) {
+        if (journal != null) {
+            journal.reset(uuid, field, value);
         }
     }
     
     public PlayerStats getPlayerStats(UUID uuid) {
-        return playerStats.computeIfAbsent(uuid, k -> new PlayerStats());
+        PlayerStats stats = playerStats.get(uuid);
+        if (stats != null) {
+            return stats;
+        }
+        return getOfflinePlayerStats(uuid);
+    }
+    
+    /**
+     * Get a player's stats once storage has answered, without blocking the caller.
+     * Online and cached players complete right away; anyone else completes on the main thread.
+     */
+    public CompletableFuture<PlayerStats> loadPlayerStats(UUID uuid) {
+        PlayerStats stats = getPlayerStats(uuid);
+        if (stats.isLoaded()) {
+            return CompletableFuture.completedFuture(stats);
+        }
+        
+        CompletableFuture<PlayerStats> pending = pendingLoads.get(uuid);
+        if (pending != null) {
+            return pending;
+        }
+        if (storage == null || !storage.isAvailable()) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Storage not available"));
+        }
+        // The last attempt failed; try again now instead of waiting for the retry
+        return loadPlayerStatsAsync(uuid, stats);
+    }
+    
+    /**
+     * Get stats for a player that is not online, going through the bounded offline cache.
+     * A cache miss hands back an unsaveable placeholder and loads the row in the background;
+     * use {@link #loadPlayerStats(UUID)} when the stored values are needed.
+     */
+    private PlayerStats getOfflinePlayerStats(UUID uuid) {
+        if (storage == null || !storage.isAvailable()) {
+            synchronized (offlineCache) {
+                CachedStats cached = offlineCache.get(uuid);
+                return cached != null ? cached.stats : new PlayerStats();
+            }
+        }
+        
+        PlayerStats placeholder;
+        synchronized (offlineCache) {
+            CachedStats cached = offlineCache.get(uuid);
+            if (cached != null) {
+                cached.lastAccess = System.currentTimeMillis();
+                return cached.stats;
+            }
+            
+            placeholder = new PlayerStats();
+            placeholder.loaded = false;
+            offlineCache.put(uuid, new CachedStats(placeholder));
+        }
+        
+        loadPlayerStatsAsync(uuid, placeholder);
+        evictOfflineStats();
+        return placeholder;
+    }
+    
+    /**
+     * Drop offline entries over the size limit or past their expiry, writing back any that changed
+     */
+    private void evictOfflineStats() {
+        long expireBefore = System.currentTimeMillis() - offlineCacheExpireMillis;
+        Map<UUID, PlayerStats> evicted = new HashMap<>();
+        
+        synchronized (offlineCache) {
+            Iterator<Map.Entry<UUID, CachedStats>> iterator = offlineCache.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<UUID, CachedStats> entry = iterator.next();
+                // Access order means everything after a fresh entry within the size limit is fresh too
+                if (offlineCache.size() <= offlineCacheMaxSize && entry.getValue().lastAccess >= expireBefore) {
+                    break;
+                }
+                iterator.remove();
+                collectDirty(entry.getKey(), entry.getValue().stats, evicted);
+            }
+        }
+        
+        if (!evicted.isEmpty()) {
+            flushDirtyStats(evicted);
+        }
+    }
+    
+    /**
+     * Get the number of stats storage and journal writes waiting to run
+     */
+    public int getQueuedStorageTasks() {
+        int queued = storage != null ? storage.getQueuedTasks() : 0;
+        return journal != null ? queued + journal.getQueuedTasks() : queued;
     }
     
     public PlayerStats getPlayerStats(Player player) {
@@ -203,10 +596,7 @@ public class StatsManager {
     }
     
     public long getTotalTreasuresFound(UUID uuid) {
-        PlayerStats stats = getPlayerStats(uuid);
-        return stats.commonTreasuresFound + stats.rareTreasuresFound + 
-               stats.epicTreasuresFound + stats.legendaryTreasuresFound + 
-               stats.mythicTreasuresFound;
+        return getPlayerStats(uuid).getTotalTreasuresFound();
     }
     
     public long getTotalTreasuresFound(Player player) {
@@ -229,18 +619,19 @@ public class StatsManager {
     // Method to get total playtime including current session
     public long getTotalPlaytimeMinutes(Player player) {
         PlayerStats stats = getPlayerStats(player);
-        return stats.minutesPlayed + getCurrentSessionMinutes(player);
+        return stats.getMinutesPlayed() + getCurrentSessionMinutes(player);
     }
     
     public void reload() {
         // Save current stats before reloading
         saveStats();
         
-        // Clear current data
-        playerStats.clear();
-        
-        // Reload from file
-        loadStats();
+        // Online players keep their stats; cached offline rows are re-read on demand
+        synchronized (offlineCache) {
+            offlineCache.clear();
+        }
+        loadCacheSettings();
+        scheduleJournalTasks();
         
         plugin.getLogger().info("Statistics reloaded");
     }
@@ -250,7 +641,9 @@ public class StatsManager {
      */
     public void setBlocksMined(UUID uuid, long blocks) {
         PlayerStats stats = getPlayerStats(uuid);
-        stats.totalBlocksMined = blocks;
+        stats.setTotalBlocksMined(blocks);
+        stats.markDirty();
+        journalReset(uuid, StatsJournal.FIELD_BLOCKS_MINED, blocks);
     }
     
     /**
@@ -260,39 +653,37 @@ public class StatsManager {
         PlayerStats stats = getPlayerStats(uuid);
         
         // Calculate current total
-        long currentTotal = stats.commonTreasuresFound + stats.rareTreasuresFound + 
-                           stats.epicTreasuresFound + stats.legendaryTreasuresFound + 
-                           stats.mythicTreasuresFound;
+        long currentTotal = stats.getTotalTreasuresFound();
         
         if (total == 0) {
             // Reset all rarity counts to 0
-            stats.commonTreasuresFound = 0;
-            stats.rareTreasuresFound = 0;
-            stats.epicTreasuresFound = 0;
-            stats.legendaryTreasuresFound = 0;
-            stats.mythicTreasuresFound = 0;
+            for (Rarity rarity : Rarity.values()) {
+                stats.setTreasuresByRarity(rarity, 0);
+            }
         } else if (total != currentTotal) {
             // Distribute the difference proportionally across rarities
             // If current total is 0, set all to common treasures
             if (currentTotal == 0) {
-                stats.commonTreasuresFound = total;
+                stats.setTreasuresByRarity(Rarity.COMMON, total);
             } else {
                 // Calculate proportional distribution
                 double ratio = (double) total / currentTotal;
-                stats.commonTreasuresFound = Math.round(stats.commonTreasuresFound * ratio);
-                stats.rareTreasuresFound = Math.round(stats.rareTreasuresFound * ratio);
-                stats.epicTreasuresFound = Math.round(stats.epicTreasuresFound * ratio);
-                stats.legendaryTreasuresFound = Math.round(stats.legendaryTreasuresFound * ratio);
-                stats.mythicTreasuresFound = Math.round(stats.mythicTreasuresFound * ratio);
+                long newTotal = 0;
+                for (Rarity rarity : Rarity.values()) {
+                    long scaled = Math.round(stats.getTreasuresByRarity(rarity) * ratio);
+                    stats.setTreasuresByRarity(rarity, scaled);
+                    newTotal += scaled;
+                }
                 
                 // Adjust for rounding errors by adding difference to common treasures
-                long newTotal = stats.commonTreasuresFound + stats.rareTreasuresFound + 
-                              stats.epicTreasuresFound + stats.legendaryTreasuresFound + 
-                              stats.mythicTreasuresFound;
                 long difference = total - newTotal;
-                stats.commonTreasuresFound += difference;
+                stats.setTreasuresByRarity(Rarity.COMMON, stats.getTreasuresByRarity(Rarity.COMMON) + difference);
             }
         }
+        stats.markDirty();
+        for (Rarity rarity : Rarity.values()) {
+            journalReset(uuid, StatsJournal.rarityField(rarity), stats.getTreasuresByRarity(rarity));
+        }
     }
     
     /**
@@ -301,13 +692,9 @@ public class StatsManager {
     public void setTreasuresByRarity(UUID uuid, Rarity rarity, long count) {
         PlayerStats stats = getPlayerStats(uuid);
         
-        switch (rarity) {
-            case COMMON -> stats.commonTreasuresFound = count;
-            case RARE -> stats.rareTreasuresFound = count;
-            case EPIC -> stats.epicTreasuresFound = count;
-            case LEGENDARY -> stats.legendaryTreasuresFound = count;
-            case MYTHIC -> stats.mythicTreasuresFound = count;
-        }
+        stats.setTreasuresByRarity(rarity, count);
+        stats.markDirty();
+        journalReset(uuid, StatsJournal.rarityField(rarity), count);
     }
     
     /**
@@ -321,69 +708,74 @@ public class StatsManager {
         long currentTime = System.currentTimeMillis();
         long newDuration = durationSeconds * 1000; // Convert to milliseconds
         
-        // Check if player has active luck
-        if (stats.hasActiveLuck()) {
-            // Player has active luck - apply stacking logic
-            
-            if (Math.abs(stats.luckMultiplier - multiplier) < 0.01) {
-                // Same multiplier (within 0.01 tolerance) - add time to existing luck
-                stats.luckEndTime += newDuration;
-                
-                plugin.getLogger().info("Player " + player.getName() + " received additional " + 
-                    formatDuration(durationSeconds) + " of " + String.format("%.1fx", multiplier) + 
-                    " luck (same multiplier, time accumulated)");
-                
-            } else if (multiplier > stats.luckMultiplier) {
-                // Higher multiplier - override current luck and save it for later
-                long remainingTime = stats.luckEndTime - currentTime;
+        // Luck fields are read and written together, so hold the stats lock for the whole update
+        synchronized (stats) {
+            // Check if player has active luck
+            if (stats.hasActiveLuck()) {
+                // Player has active luck - apply stacking logic
                 
-                // Save current luck as queued luck
-                stats.queuedLuckEndTime = currentTime + newDuration + remainingTime;
-                stats.queuedLuckMultiplier = stats.luckMultiplier;
-                
-                // Apply new higher luck immediately
-                stats.luckEndTime = currentTime + newDuration;
-                stats.luckMultiplier = multiplier;
-                
-                plugin.getLogger().info("Player " + player.getName() + " received " + 
-                    String.format("%.1fx", multiplier) + " luck for " + formatDuration(durationSeconds) + 
-                    " (higher multiplier overriding " + String.format("%.1fx", stats.queuedLuckMultiplier) + 
-                    ", saved for later)");
-                
-            } else {
-                // Lower multiplier - queue it to activate after current luck expires
-                if (stats.queuedLuckMultiplier < multiplier || stats.queuedLuckEndTime <= stats.luckEndTime) {
-                    // Replace queued luck if new one is better or no queue exists
-                    stats.queuedLuckEndTime = stats.luckEndTime + newDuration;
-                    stats.queuedLuckMultiplier = multiplier;
+                if (Math.abs(stats.luckMultiplier - multiplier) < 0.01) {
+                    // Same multiplier (within 0.01 tolerance) - add time to existing luck
+                    stats.luckEndTime += newDuration;
+                    
+                    plugin.getLogger().info("Player " + player.getName() + " received additional " + 
+                        formatDuration(durationSeconds) + " of " + String.format("%.1fx", multiplier) + 
+                        " luck (same multiplier, time accumulated)");
+                    
+                } else if (multiplier > stats.luckMultiplier) {
+                    // Higher multiplier - override current luck and save it for later
+                    long remainingTime = stats.luckEndTime - currentTime;
+                    
+                    // Save current luck as queued luck
+                    stats.queuedLuckEndTime = currentTime + newDuration + remainingTime;
+                    stats.queuedLuckMultiplier = stats.luckMultiplier;
+                    
+                    // Apply new higher luck immediately
+                    stats.luckEndTime = currentTime + newDuration;
+                    stats.luckMultiplier = multiplier;
                     
                     plugin.getLogger().info("Player " + player.getName() + " received " + 
-                        String.format("%.1fx", multiplier) + " luck queued for " + formatDuration(durationSeconds) + 
-                        " (will activate after current " + String.format("%.1fx", stats.luckMultiplier) + " expires)");
+                        String.format("%.1fx", multiplier) + " luck for " + formatDuration(durationSeconds) + 
+                        " (higher multiplier overriding " + String.format("%.1fx", stats.queuedLuckMultiplier) + 
+                        ", saved for later)");
+                    
                 } else {
-                    // Add time to existing queue if same multiplier
-                    if (Math.abs(stats.queuedLuckMultiplier - multiplier) < 0.01) {
-                        stats.queuedLuckEndTime += newDuration;
+                    // Lower multiplier - queue it to activate after current luck expires
+                    if (stats.queuedLuckMultiplier < multiplier || stats.queuedLuckEndTime <= stats.luckEndTime) {
+                        // Replace queued luck if new one is better or no queue exists
+                        stats.queuedLuckEndTime = stats.luckEndTime + newDuration;
+                        stats.queuedLuckMultiplier = multiplier;
                         
-                        plugin.getLogger().info("Player " + player.getName() + " received additional " + 
-                            formatDuration(durationSeconds) + " added to queued " + String.format("%.1fx", multiplier) + " luck");
+                        plugin.getLogger().info("Player " + player.getName() + " received " + 
+                            String.format("%.1fx", multiplier) + " luck queued for " + formatDuration(durationSeconds) + 
+                            " (will activate after current " + String.format("%.1fx", stats.luckMultiplier) + " expires)");
                     } else {
-                        plugin.getLogger().info("Player " + player.getName() + " already has better luck queued, " +
-                            String.format("%.1fx", multiplier) + " luck ignored");
+                        // Add time to existing queue if same multiplier
+                        if (Math.abs(stats.queuedLuckMultiplier - multiplier) < 0.01) {
+                            stats.queuedLuckEndTime += newDuration;
+                            
+                            plugin.getLogger().info("Player " + player.getName() + " received additional " + 
+                                formatDuration(durationSeconds) + " added to queued " + String.format("%.1fx", multiplier) + " luck");
+                        } else {
+                            plugin.getLogger().info("Player " + player.getName() + " already has better luck queued, " +
+                                String.format("%.1fx", multiplier) + " luck ignored");
+                        }
                     }
                 }
+            } else {
+                // No active luck - check if queued luck should activate
+                stats.processLuckQueue();
+                
+                // Apply new luck directly
+                stats.luckEndTime = currentTime + newDuration;
+                stats.luckMultiplier = multiplier;
+                
+                plugin.getLogger().info("Player " + player.getName() + " received " + 
+                    String.format("%.1fx", multiplier) + " luck for " + formatDuration(durationSeconds));
             }
-        } else {
-            // No active luck - check if queued luck should activate
-            stats.processLuckQueue();
-            
-            // Apply new luck directly
-            stats.luckEndTime = currentTime + newDuration;
-            stats.luckMultiplier = multiplier;
-            
-            plugin.getLogger().info("Player " + player.getName() + " received " + 
-                String.format("%.1fx", multiplier) + " luck for " + formatDuration(durationSeconds));
+            stats.luckChanged();
         }
+        stats.markDirty();
     }
     
     /**
@@ -404,8 +796,12 @@ public class StatsManager {
      */
     public void removeLuck(Player player) {
         PlayerStats stats = getPlayerStats(player);
-        stats.luckEndTime = 0;
-        stats.luckMultiplier = 1.0;
+        synchronized (stats) {
+            stats.luckEndTime = 0;
+            stats.luckMultiplier = 1.0;
+            stats.luckChanged();
+        }
+        stats.markDirty();
     }
     
     /**
@@ -423,8 +819,10 @@ public class StatsManager {
      */
     public boolean toggleTreasureSpawning(Player player) {
         PlayerStats stats = getPlayerStats(player);
-        stats.treasureSpawningEnabled = !stats.treasureSpawningEnabled;
-        return stats.treasureSpawningEnabled;
+        boolean enabled = !stats.isTreasureSpawningEnabled();
+        stats.setTreasureSpawningEnabled(enabled);
+        stats.markDirty();
+        return enabled;
     }
     
     /**
@@ -434,7 +832,8 @@ public class StatsManager {
      */
     public void setTreasureSpawning(Player player, boolean enabled) {
         PlayerStats stats = getPlayerStats(player);
-        stats.treasureSpawningEnabled = enabled;
+        stats.setTreasureSpawningEnabled(enabled);
+        stats.markDirty();
     }
     
     /**
@@ -444,37 +843,203 @@ public class StatsManager {
      */
     public boolean isTreasureSpawningEnabled(Player player) {
         PlayerStats stats = getPlayerStats(player);
-        return stats.treasureSpawningEnabled;
+        return stats.isTreasureSpawningEnabled();
     }
 
+    /**
+     * Per-player statistics. Hot counters are LongAdders so the main thread can increment
+     * them while persistence threads read; luck state is guarded by the instance lock.
+     */
     public static class PlayerStats {
-        public long totalBlocksMined = 0;
-        public long commonTreasuresFound = 0;
-        public long rareTreasuresFound = 0;
-        public long epicTreasuresFound = 0;
-        public long legendaryTreasuresFound = 0;
-        public long mythicTreasuresFound = 0;
-        public long minutesPlayed = 0;
+        private final LongAdder totalBlocksMined = new LongAdder();
+        private final LongAdder[] treasuresFound = newAdders(Rarity.values().length);
+        private final LongAdder minutesPlayed = new LongAdder();
         
         // Enhanced luck system with stacking
-        public long luckEndTime = 0; // When current luck expires (System.currentTimeMillis())
-        public double luckMultiplier = 1.0; // Current active luck multiplier
+        private long luckEndTime = 0; // When current luck expires (System.currentTimeMillis())
+        private double luckMultiplier = 1.0; // Current active luck multiplier
         
         // Queued luck system
-        public long queuedLuckEndTime = 0; // When queued luck expires
-        public double queuedLuckMultiplier = 1.0; // Queued luck multiplier
+        private long queuedLuckEndTime = 0; // When queued luck expires
+        private double queuedLuckMultiplier = 1.0; // Queued luck multiplier
         
         // Treasure spawning toggle
-        public boolean treasureSpawningEnabled = true; // Default enabled
+        private volatile boolean treasureSpawningEnabled = true; // Default enabled
+        
+        // Set whenever a field changes, cleared once the row is handed to storage
+        private volatile boolean dirty = false;
+        // False while a placeholder is waiting for its stored row
+        volatile boolean loaded = true;
+        // Set when luck or the spawning toggle change on a placeholder, so the stored row does not undo them
+        private boolean luckChangedWhileLoading = false;
+        private volatile boolean spawningChangedWhileLoading = false;
+        // Newest journal segment already contained in the stored row
+        private volatile long journalSequence = 0;
+        
+        private static LongAdder[] newAdders(int count) {
+            LongAdder[] adders = new LongAdder[count];
+            for (int i = 0; i < count; i++) {
+                adders[i] = new LongAdder();
+            }
+            return adders;
+        }
+        
+        public void markDirty() {
+            dirty = true;
+        }
+        
+        public boolean isDirty() {
+            return dirty;
+        }
+        
+        void clearDirty() {
+            dirty = false;
+        }
+        
+        public boolean isLoaded() {
+            return loaded;
+        }
+        
+        /**
+         * Copy every field into a detached instance for persistence
+         */
+        public synchronized PlayerStats snapshot() {
+            PlayerStats copy = new PlayerStats();
+            copy.totalBlocksMined.add(totalBlocksMined.sum());
+            for (int i = 0; i < treasuresFound.length; i++) {
+                copy.treasuresFound[i].add(treasuresFound[i].sum());
+            }
+            copy.minutesPlayed.add(minutesPlayed.sum());
+            copy.luckEndTime = luckEndTime;
+            copy.luckMultiplier = luckMultiplier;
+            copy.queuedLuckEndTime = queuedLuckEndTime;
+            copy.queuedLuckMultiplier = queuedLuckMultiplier;
+            copy.treasureSpawningEnabled = treasureSpawningEnabled;
+            copy.journalSequence = journalSequence;
+            return copy;
+        }
+        
+        /**
+         * Fold the stored row into this placeholder. Counters recorded since join are
+         * added on top; luck and the spawning toggle keep any change made while loading
+         * and take the stored value otherwise.
+         */
+        synchronized void mergeLoaded(PlayerStats stored) {
+            totalBlocksMined.add(stored.getTotalBlocksMined());
+            for (Rarity rarity : Rarity.values()) {
+                treasuresFound[rarity.ordinal()].add(stored.getTreasuresByRarity(rarity));
+            }
+            minutesPlayed.add(stored.getMinutesPlayed());
+            if (!luckChangedWhileLoading) {
+                synchronized (stored) {
+                    luckEndTime = stored.luckEndTime;
+                    luckMultiplier = stored.luckMultiplier;
+                    queuedLuckEndTime = stored.queuedLuckEndTime;
+                    queuedLuckMultiplier = stored.queuedLuckMultiplier;
+                }
+            }
+            if (!spawningChangedWhileLoading) {
+                treasureSpawningEnabled = stored.treasureSpawningEnabled;
+            }
+            journalSequence = stored.journalSequence;
+            loaded = true;
+        }
+        
+        public long getTotalBlocksMined() {
+            return totalBlocksMined.sum();
+        }
+        
+        public void setTotalBlocksMined(long blocks) {
+            totalBlocksMined.reset();
+            totalBlocksMined.add(blocks);
+        }
+        
+        public void incrementBlocksMined() {
+            totalBlocksMined.increment();
+        }
         
         public long getTreasuresByRarity(Rarity rarity) {
-            return switch (rarity) {
-                case COMMON -> commonTreasuresFound;
-                case RARE -> rareTreasuresFound;
-                case EPIC -> epicTreasuresFound;
-                case LEGENDARY -> legendaryTreasuresFound;
-                case MYTHIC -> mythicTreasuresFound;
-            };
+            return treasuresFound[rarity.ordinal()].sum();
+        }
+        
+        public void setTreasuresByRarity(Rarity rarity, long count) {
+            LongAdder adder = treasuresFound[rarity.ordinal()];
+            adder.reset();
+            adder.add(count);
+        }
+        
+        public void incrementTreasuresFound(Rarity rarity) {
+            treasuresFound[rarity.ordinal()].increment();
+        }
+        
+        public long getTotalTreasuresFound() {
+            long total = 0;
+            for (LongAdder adder : treasuresFound) {
+                total += adder.sum();
+            }
+            return total;
+        }
+        
+        public long getCommonTreasuresFound() { return getTreasuresByRarity(Rarity.COMMON); }
+        public long getRareTreasuresFound() { return getTreasuresByRarity(Rarity.RARE); }
+        public long getEpicTreasuresFound() { return getTreasuresByRarity(Rarity.EPIC); }
+        public long getLegendaryTreasuresFound() { return getTreasuresByRarity(Rarity.LEGENDARY); }
+        public long getMythicTreasuresFound() { return getTreasuresByRarity(Rarity.MYTHIC); }
+        
+        public void setCommonTreasuresFound(long count) { setTreasuresByRarity(Rarity.COMMON, count); }
+        public void setRareTreasuresFound(long count) { setTreasuresByRarity(Rarity.RARE, count); }
+        public void setEpicTreasuresFound(long count) { setTreasuresByRarity(Rarity.EPIC, count); }
+        public void setLegendaryTreasuresFound(long count) { setTreasuresByRarity(Rarity.LEGENDARY, count); }
+        public void setMythicTreasuresFound(long count) { setTreasuresByRarity(Rarity.MYTHIC, count); }
+        
+        public long getMinutesPlayed() {
+            return minutesPlayed.sum();
+        }
+        
+        public void setMinutesPlayed(long minutes) {
+            minutesPlayed.reset();
+            minutesPlayed.add(minutes);
+        }
+        
+        public void addMinutesPlayed(long minutes) {
+            minutesPlayed.add(minutes);
+        }
+        
+        public synchronized long getLuckEndTime() { return luckEndTime; }
+        public synchronized void setLuckEndTime(long luckEndTime) { this.luckEndTime = luckEndTime; }
+        public synchronized double getLuckMultiplier() { return luckMultiplier; }
+        public synchronized void setLuckMultiplier(double luckMultiplier) { this.luckMultiplier = luckMultiplier; }
+        public synchronized long getQueuedLuckEndTime() { return queuedLuckEndTime; }
+        public synchronized void setQueuedLuckEndTime(long queuedLuckEndTime) { this.queuedLuckEndTime = queuedLuckEndTime; }
+        public synchronized double getQueuedLuckMultiplier() { return queuedLuckMultiplier; }
+        public synchronized void setQueuedLuckMultiplier(double queuedLuckMultiplier) { this.queuedLuckMultiplier = queuedLuckMultiplier; }
+        
+        public boolean isTreasureSpawningEnabled() {
+            return treasureSpawningEnabled;
+        }
+        
+        public void setTreasureSpawningEnabled(boolean enabled) {
+            this.treasureSpawningEnabled = enabled;
+            if (!loaded) {
+                spawningChangedWhileLoading = true;
+            }
+        }
+        
+        /**
+         * Note a luck change; callers hold the instance lock
+         */
+        void luckChanged() {
+            if (!loaded) {
+                luckChangedWhileLoading = true;
+            }
+        }
+        
+        public long getJournalSequence() {
+            return journalSequence;
+        }
+        
+        public void setJournalSequence(long journalSequence) {
+            this.journalSequence = journalSequence;
         }
         
         /**
@@ -487,7 +1052,7 @@ public class StatsManager {
         /**
          * Check if player currently has active luck
          */
-        public boolean hasActiveLuck() {
+        public synchronized boolean hasActiveLuck() {
             processLuckQueue(); // Process queue first, then check
             return hasActiveLuckRaw();
         }
@@ -495,7 +1060,7 @@ public class StatsManager {
         /**
          * Get remaining luck time in seconds
          */
-        public long getRemainingLuckSeconds() {
+        public synchronized long getRemainingLuckSeconds() {
             processLuckQueue(); // Process queue first
             if (!hasActiveLuckRaw()) {
                 return 0;
@@ -506,7 +1071,7 @@ public class StatsManager {
         /**
          * Get effective luck multiplier (1.0 if no active luck)
          */
-        public double getEffectiveLuckMultiplier() {
+        public synchronized double getEffectiveLuckMultiplier() {
             processLuckQueue(); // Process queue first
             return hasActiveLuckRaw() ? luckMultiplier : 1.0;
         }
@@ -514,7 +1079,7 @@ public class StatsManager {
         /**
          * Check if player has queued luck waiting
          */
-        public boolean hasQueuedLuck() {
+        public synchronized boolean hasQueuedLuck() {
             long currentTime = System.currentTimeMillis();
             return queuedLuckEndTime > currentTime && queuedLuckMultiplier > 1.0;
         }
@@ -522,7 +1087,7 @@ public class StatsManager {
         /**
          * Get queued luck remaining time in seconds
          */
-        public long getQueuedLuckRemainingSeconds() {
+        public synchronized long getQueuedLuckRemainingSeconds() {
             if (!hasQueuedLuck()) {
                 return 0;
             }
@@ -533,7 +1098,7 @@ public class StatsManager {
          * Process the queued luck effect, activating it if the current luck has expired
          * NOTE: This method uses hasActiveLuckRaw() to avoid infinite recursion
          */
-        public void processLuckQueue() {
+        public synchronized void processLuckQueue() {
             long currentTime = System.currentTimeMillis();
             
             // If current luck has expired and we have queued luck
@@ -550,6 +1115,7 @@ public class StatsManager {
                     // Reset queued luck
                     queuedLuckMultiplier = 1.0;
                     queuedLuckEndTime = 0;
+                    dirty = true;
                     
                     InfernalTresures.getInstance().getLogger().info("Activated queued luck: " + 
                         String.format("%.1fx", luckMultiplier) + " for " + (queuedRemainingTime / 1000) + " seconds");
@@ -557,8 +1123,18 @@ public class StatsManager {
                     // Queued luck has also expired, clear it
                     queuedLuckMultiplier = 1.0;
                     queuedLuckEndTime = 0;
+                    dirty = true;
                 }
             }
         }
     }
+    
+    private static final class CachedStats {
+        final PlayerStats stats;
+        long lastAccess = System.currentTimeMillis();
+        
+        CachedStats(PlayerStats stats) {
+            this.stats = stats;
+        }
+    }
 }
\ No newline at end of file
@@ -40,6 +40,11 @@ public interface StatsStorage {
      */
     CompletableFuture<Void> saveAllPlayerStats(java.util.Map<UUID, StatsManager.PlayerStats> allStats);
     
+    /**
+     * Get the highest journal segment already applied to any stored row
+     */
+    CompletableFuture<Long> loadJournalSequence();
+    
     /**
      * Check if the storage system is available and working
      */
@@ -49,4 +54,9 @@ public interface StatsStorage {
      * Get the storage type name
      */
     String getStorageType();
+    
+    /**
+     * Get the number of storage tasks waiting to run
+     */
+    int getQueuedTasks();
 }
\ No newline at end of file
@@ -3,25 +3,308 @@ package me.itzrenzo.infernaltresures.managers;
 import me.itzrenzo.infernaltresures.InfernalTresures;
 import me.itzrenzo.infernaltresures.models.Rarity;
 import me.itzrenzo.infernaltresures.models.Treasure;
+import me.itzrenzo.infernaltresures.utils.TimingWheel;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.TextDecoration;
 import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
+import org.bukkit.block.Barrel;
 import org.bukkit.block.Biome;
 import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
 import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.scheduler.BukkitTask;
 
 import java.util.*;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.Level;
 
 public class TreasureManager {
     
     private final InfernalTresures plugin;
     private final Map<UUID, Treasure> activeTreasures = new HashMap<>();
+    // Spatial index: world UID -> packed block position -> treasure at that block
+    private final Map<UUID, Map<Long, Treasure>> treasuresByBlock = new HashMap<>();
+    // Chunk index: world UID -> packed chunk position -> treasures inside that chunk
+    private final Map<UUID, Map<Long, Set<Treasure>>> treasuresByChunk = new HashMap<>();
+    // Biome cache: world UID -> packed chunk position -> biome per 4x4x4 biome cell (bottom layer first)
+    private final Map<UUID, Map<Long, Biome[]>> biomeCache = new HashMap<>();
+    // Despawn timers, advanced by the driver once per tick
+    private final TimingWheel<Treasure> despawnWheel = new TimingWheel<>();
+    private final Map<UUID, TimingWheel.Timer<Treasure>> despawnTimers = new HashMap<>();
+    // Treasures that expired while their chunk was unloaded: world UID -> packed chunk position -> treasures
+    private final Map<UUID, Map<Long, List<Treasure>>> expiredInUnloadedChunks = new HashMap<>();
+    // Treasure spawns and barrel filling steps, run in order on later ticks within the per-tick budget
+    private final Deque<QueuedStep> materializeQueue = new ArrayDeque<>();
+    private long longestMaterializeWaitNanos = 0;
+    // Treasures whose barrel inventory changed, recounted once on the next driver tick
+    private final Map<Treasure, Inventory> pendingRecounts = new LinkedHashMap<>();
+    // Snapshot of active treasures kept across restarts, and the marker stored on their barrels
+    private final TreasureStore store;
+    private final NamespacedKey markerKey;
+    // Saved treasures of worlds that have not loaded yet, restored on WorldLoadEvent: world UID -> records
+    private final Map<UUID, List<TreasureStore.Record>> pendingRestores = new HashMap<>();
+    // False when the snapshot could not be read in full, so untracked barrels may still be saved treasures
+    private boolean snapshotComplete = true;
+    // Chunks listed by the last snapshot that may hold untracked barrels, scanned once each as they load
+    private final Map<UUID, Set<Long>> orphanScanChunks = new HashMap<>();
+    // Chunks where treasures were placed or removed this run, listed in snapshots in case the server crashes;
+    // dropped once they hold no treasures and a snapshot has listed them
+    private final Map<UUID, Set<Long>> touchedChunks = new HashMap<>();
+    private boolean touchedChunksChanged = false;
+    private boolean snapshotDirty = false;
+    private long ticks = 0;
+    private final BukkitTask driver;
     
     public TreasureManager(InfernalTresures plugin) {
         this.plugin = plugin;
+        this.markerKey = new NamespacedKey(plugin, "treasure");
+        this.store = new TreasureStore(plugin);
+        if (plugin.getConfigManager().isTreasurePersistenceEnabled()) {
+            loadSnapshot();
+        }
+        
+        // One repeating task drives every treasure instead of a few one-shot tasks per treasure
+        this.driver = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+    
+    /**
+     * Read the treasures saved at the last shutdown. The plugin may enable before any world is loaded,
+     * so records wait per world and are restored when their world loads.
+     */
+    private void loadSnapshot() {
+        TreasureStore.LoadResult result = store.load();
+        snapshotComplete = result.isComplete();
+        orphanScanChunks.putAll(result.getScanChunks());
+        for (TreasureStore.Record record : result.getRecords()) {
+            pendingRestores.computeIfAbsent(record.getWorldId(), k -> new ArrayList<>()).add(record);
+        }
+        
+        for (World world : Bukkit.getWorlds()) {
+            onWorldLoad(world);
+        }
+    }
+    
+    /**
+     * Restore the saved treasures of a world once it has loaded
+     */
+    public void onWorldLoad(World world) {
+        List<TreasureStore.Record> records = pendingRestores.remove(world.getUID());
+        if (records != null) {
+            restoreTreasures(world, records);
+        }
+    }
+    
+    /**
+     * Called once the server has finished starting: report saved treasures whose world never loaded.
+     * They are kept in the snapshot in case the world is loaded later.
+     */
+    public void onServerLoad() {
+        for (World world : Bukkit.getWorlds()) {
+            onWorldLoad(world);
+        }
+        
+        int waiting = 0;
+        for (List<TreasureStore.Record> records : pendingRestores.values()) {
+            waiting += records.size();
+        }
+        if (waiting > 0) {
+            plugin.getLogger().warning(waiting + " saved treasures are waiting for " + pendingRestores.size() + 
+                " worlds that are not loaded");
+        }
+    }
+    
+    /**
+     * Register the saved treasures of a loaded world. Nothing is loaded here: each one is matched
+     * to its barrel when its chunk loads, or right away if the chunk is already loaded.
+     */
+    private void restoreTreasures(World world, List<TreasureStore.Record> records) {
+        Set<Chunk> loadedChunks = new HashSet<>();
+        int restored = 0;
+        
+        for (TreasureStore.Record record : records) {
+            Rarity rarity;
+            Biome biome;
+            try {
+                rarity = Rarity.valueOf(record.getRarity());
+                biome = Biome.valueOf(record.getBiome());
+            } catch (IllegalArgumentException e) {
+                plugin.getLogger().warning("Skipping saved treasure with unknown rarity or biome: " + 
+                    record.getRarity() + ", " + record.getBiome());
+                continue;
+            }
+            
+            Location location = new Location(world, record.getX() + 0.5, record.getY(), record.getZ() + 0.5);
+            addTreasure(new Treasure(record.getId(), location, rarity, biome, record.getFinderId(), record.getExpiresAt()));
+            restored++;
+            
+            if (world.isChunkLoaded(record.getX() >> 4, record.getZ() >> 4)) {
+                loadedChunks.add(world.getChunkAt(record.getX() >> 4, record.getZ() >> 4));
+            }
+        }
+        
+        for (Chunk chunk : loadedChunks) {
+            onChunkLoad(chunk);
+        }
+        
+        if (restored > 0) {
+            plugin.getLogger().info("Restored " + restored + " treasures in " + world.getName() + " from the last shutdown");
+        }
+    }
+    
+    /**
+     * Save the active treasures on the snapshot writer thread.
+     * Treasures still waiting to be filled are left out, their loot only exists in memory.
+     * While running, every chunk touched this run is listed for an orphan scan in case the server crashes;
+     * a clean shutdown only lists chunks still unscanned and those of treasures left out.
+     * A touched chunk with no treasures left is listed one last time and then forgotten.
+     */
+    private void saveSnapshot(boolean shutdown) {
+        List<TreasureStore.Record> records = new ArrayList<>(activeTreasures.size());
+        Map<UUID, Set<Long>> scanChunks = new HashMap<>();
+        for (Map.Entry<UUID, Set<Long>> entry : orphanScanChunks.entrySet()) {
+            scanChunks.put(entry.getKey(), new HashSet<>(entry.getValue()));
+        }
+        Map<UUID, Set<Long>> occupiedChunks = new HashMap<>();
+        for (Treasure treasure : activeTreasures.values()) {
+            occupiedChunks.computeIfAbsent(treasure.getLocation().getWorld().getUID(), k -> new HashSet<>())
+                .add(chunkKey(treasure.getLocation()));
+            if (treasure.isFilled()) {
+                records.add(TreasureStore.Record.of(treasure));
+            } else if (shutdown) {
+                scanChunks.computeIfAbsent(treasure.getLocation().getWorld().getUID(), k -> new HashSet<>())
+                    .add(chunkKey(treasure.getLocation()));
+            }
+        }
+        if (!shutdown) {
+            for (Map.Entry<UUID, Set<Long>> entry : touchedChunks.entrySet()) {
+                scanChunks.computeIfAbsent(entry.getKey(), k -> new HashSet<>()).addAll(entry.getValue());
+            }
+        }
+        // Treasures of worlds that never loaded this run are kept as they were
+        for (List<TreasureStore.Record> pending : pendingRestores.values()) {
+            records.addAll(pending);
+        }
+        // A save the writer could not take is retried on the next interval
+        snapshotDirty = !store.saveAsync(records, scanChunks);
+        touchedChunksChanged = snapshotDirty;
+        
+        if (!snapshotDirty && !shutdown) {
+            pruneTouchedChunks(occupiedChunks);
+        }
+    }
+    
+    /**
+     * Forget touched chunks whose treasures are all gone, now that a snapshot listing them is queued
+     */
+    private void pruneTouchedChunks(Map<UUID, Set<Long>> occupiedChunks) {
+        Iterator<Map.Entry<UUID, Set<Long>>> iterator = touchedChunks.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, Set<Long>> entry = iterator.next();
+            Set<Long> occupied = occupiedChunks.getOrDefault(entry.getKey(), Set.of());
+            entry.getValue().retainAll(occupied);
+            if (entry.getValue().isEmpty()) {
+                iterator.remove();
+            }
+        }
+    }
+    
+    /**
+     * Remember that a treasure barrel was placed or removed in a chunk
+     */
+    private void touchChunk(Location location) {
+        if (touchedChunks.computeIfAbsent(location.getWorld().getUID(), k -> new HashSet<>()).add(chunkKey(location))) {
+            touchedChunksChanged = true;
+        }
+    }
+    
+    /**
+     * Driver tick: expire due despawn timers, then run queued materialization steps until the tick's budget is used
+     */
+    private void tick() {
+        despawnWheel.advance(this::expireTreasure);
+        recountChangedTreasures();
+        
+        ticks++;
+        // A newly touched chunk is saved right away so a crash cannot leave its barrel unlisted
+        if (snapshotDirty && (touchedChunksChanged || ticks % plugin.getConfigManager().getTreasureSaveIntervalTicks() == 0)
+                && plugin.getConfigManager().isTreasurePersistenceEnabled()) {
+            saveSnapshot(false);
+        }
+        
+        long start = System.nanoTime();
+        int maxSteps = plugin.getConfigManager().getMaterializeMaxStepsPerTick();
+        long budgetNanos = plugin.getConfigManager().getMaterializeBudgetNanos();
+        
+        // Steps queued while these run wait for the next tick, as does anything over budget
+        int ready = materializeQueue.size();
+        if (maxSteps > 0) {
+            ready = Math.min(ready, maxSteps);
+        }
+        for (int i = 0; i < ready; i++) {
+            // Always run at least one step so the queue keeps draining
+            if (i > 0 && budgetNanos > 0 && System.nanoTime() - start >= budgetNanos) {
+                break;
+            }
+            
+            QueuedStep step = materializeQueue.poll();
+            longestMaterializeWaitNanos = Math.max(longestMaterializeWaitNanos, System.nanoTime() - step.queuedAt);
+            try {
+                step.action.run();
+            } catch (Exception e) {
+                plugin.getLogger().log(Level.SEVERE, "Treasure materialization step failed", e);
+            }
+        }
+    }
+    
+    /**
+     * Called from inventory events; the barrel is recounted on the next tick, once the change has been applied
+     */
+    public void onTreasureInventoryChanged(Inventory inventory) {
+        if (inventory.getType() != InventoryType.BARREL) {
+            return;
+        }
+        Location location = inventory.getLocation();
+        if (location == null) {
+            return;
+        }
+        
+        Treasure treasure = getTreasureAt(location);
+        if (treasure != null) {
+            pendingRecounts.putIfAbsent(treasure, inventory);
+        }
+    }
+    
+    /**
+     * Recount treasures whose inventory changed and release the ones that have been emptied
+     */
+    private void recountChangedTreasures() {
+        if (pendingRecounts.isEmpty()) {
+            return;
+        }
+        
+        List<Map.Entry<Treasure, Inventory>> changed = new ArrayList<>(pendingRecounts.entrySet());
+        pendingRecounts.clear();
+        for (Map.Entry<Treasure, Inventory> entry : changed) {
+            Treasure treasure = entry.getKey();
+            if (activeTreasures.get(treasure.getId()) != treasure || !treasure.isFilled()) {
+                continue;
+            }
+            
+            if (treasure.updateRemainingItems(entry.getValue()) == 0) {
+                treasure.release();
+                if (plugin.getConfigManager().isTreasureSpawningDebugEnabled()) {
+                    plugin.getLogger().info("Released emptied " + treasure.getRarity() + " treasure");
+                }
+            }
+        }
     }
     
     public Rarity getRandomRarity() {
@@ -54,11 +337,14 @@ public class TreasureManager {
             return false;
         }
 
-        // Get biome and check if it has valid loot configured
-        Biome biome = minedBlock.getBiome();
+        // Get biome (at the player or the mined block, per config) and check if it has valid loot configured
+        Location biomeLocation = plugin.getConfigManager().useBiomePlayerLocation() ? player.getLocation() : minedBlock.getLocation();
+        Biome biome = getBiomeAt(biomeLocation);
         
-        // Check if this biome has a valid loot table before proceeding
-        if (!hasValidLootTable(biome, rarity)) {
+        // Check if this biome has a valid loot table before proceeding; the spawn keeps these tables
+        // even if a reload publishes new ones before its barrel is created
+        LootManager.LootTables lootTables = plugin.getLootManager().getLootTables();
+        if (!hasValidLootTable(lootTables, biome, rarity)) {
             if (plugin.getConfigManager().isTreasureSpawningDebugEnabled()) {
                 plugin.getLogger().info("Skipping treasure spawn in biome " + biome.name() + 
                     " - no valid loot table found in biomes folder");
@@ -69,9 +355,6 @@ public class TreasureManager {
         // Track treasure found statistics
         plugin.getStatsManager().onTreasureFound(player, rarity);
 
-        // Play rarity-specific sound and particle effects
-        playTreasureEffects(player, rarity, minedBlock.getLocation());
-
         // Make final variables for lambda expression
         final Rarity finalRarity = rarity;
         final UUID playerUUID = player.getUniqueId(); // Store UUID instead of player object
@@ -79,8 +362,8 @@ public class TreasureManager {
         // Use the exact location of the broken block, but delay the spawning
         Location spawnLocation = minedBlock.getLocation().add(0.5, 0, 0.5); // Center the barrel in the block
 
-        // Delay the treasure creation to ensure the block breaking event completes first
-        Bukkit.getScheduler().runTaskLater(plugin, () -> {
+        // Queue the treasure creation for a later tick to ensure the block breaking event completes first
+        queueStep(() -> {
             // Don't try to retrieve the player again - use the original player reference
             // The Treasure constructor will store the UUID internally for loot generation
             
@@ -88,9 +371,12 @@ public class TreasureManager {
                 plugin.getLogger().info("Creating treasure for player: " + player.getName() + " (UUID: " + playerUUID + ")");
             }
             
-            Treasure treasure = new Treasure(spawnLocation, finalRarity, biome, player);
-            activeTreasures.put(treasure.getId(), treasure);
-        }, 1L); // 1 tick delay
+            // Play rarity-specific sound and particle effects as the barrel appears
+            playTreasureEffects(player, finalRarity, minedBlock.getLocation());
+            
+            Treasure treasure = new Treasure(spawnLocation, finalRarity, biome, player, lootTables);
+            addTreasure(treasure);
+        });
 
         // Announce to player immediately
         Component message = InfernalTresures.getInstance().getMessageManager().getTreasureFoundMessage(finalRarity, finalRarity.getDespawnTime());
@@ -113,45 +399,33 @@ public class TreasureManager {
             return;
         }
         
-        // Play sound effect if global sound is enabled
-        if (plugin.getConfigManager().isSoundEffectEnabled()) {
-            try {
-                String soundName = plugin.getConfigManager().getRaritySound(rarity);
-                float volume = plugin.getConfigManager().getRaritySoundVolume(rarity);
-                float pitch = plugin.getConfigManager().getRaritySoundPitch(rarity);
-                
-                org.bukkit.Sound sound = org.bukkit.Sound.valueOf(soundName);
-                player.playSound(player.getLocation(), sound, volume, pitch);
-                
-                if (plugin.getConfigManager().isTreasureSpawningDebugEnabled()) {
-                    plugin.getLogger().info("Played " + rarity + " sound: " + soundName + 
-                        " (volume: " + volume + ", pitch: " + pitch + ")");
-                }
-            } catch (IllegalArgumentException e) {
-                plugin.getLogger().warning("Invalid sound for " + rarity + " rarity: " + 
-                    plugin.getConfigManager().getRaritySound(rarity));
+        // Play sound effect if global sound is enabled (parsed when the config loads, null if invalid)
+        org.bukkit.Sound sound = plugin.getConfigManager().getRaritySoundEffect(rarity);
+        if (plugin.getConfigManager().isSoundEffectEnabled() && sound != null) {
+            float volume = plugin.getConfigManager().getRaritySoundVolume(rarity);
+            float pitch = plugin.getConfigManager().getRaritySoundPitch(rarity);
+            
+            player.playSound(player.getLocation(), sound, volume, pitch);
+            
+            if (plugin.getConfigManager().isTreasureSpawningDebugEnabled()) {
+                plugin.getLogger().info("Played " + rarity + " sound: " + plugin.getConfigManager().getRaritySound(rarity) + 
+                    " (volume: " + volume + ", pitch: " + pitch + ")");
             }
         }
         
-        // Play particle effect if global particles are enabled
-        if (plugin.getConfigManager().isParticleEffectEnabled()) {
-            try {
-                String particleName = plugin.getConfigManager().getRarityParticle(rarity);
-                int count = plugin.getConfigManager().getRarityParticleCount(rarity);
-                double offset = plugin.getConfigManager().getRarityParticleOffset(rarity);
-                
-                org.bukkit.Particle particle = org.bukkit.Particle.valueOf(particleName);
-                Location effectLocation = location.clone().add(0.5, 0.5, 0.5); // Center of block
-                
-                player.getWorld().spawnParticle(particle, effectLocation, count, offset, offset, offset, 0);
-                
-                if (plugin.getConfigManager().isTreasureSpawningDebugEnabled()) {
-                    plugin.getLogger().info("Spawned " + rarity + " particles: " + particleName + 
-                        " (count: " + count + ", offset: " + offset + ")");
-                }
-            } catch (IllegalArgumentException e) {
-                plugin.getLogger().warning("Invalid particle for " + rarity + " rarity: " + 
-                    plugin.getConfigManager().getRarityParticle(rarity));
+        // Play particle effect if global particles are enabled (parsed when the config loads, null if invalid)
+        org.bukkit.Particle particle = plugin.getConfigManager().getRarityParticleEffect(rarity);
+        if (plugin.getConfigManager().isParticleEffectEnabled() && particle != null) {
+            int count = plugin.getConfigManager().getRarityParticleCount(rarity);
+            double offset = plugin.getConfigManager().getRarityParticleOffset(rarity);
+            
+            Location effectLocation = location.clone().add(0.5, 0.5, 0.5); // Center of block
+            
+            player.getWorld().spawnParticle(particle, effectLocation, count, offset, offset, offset, 0);
+            
+            if (plugin.getConfigManager().isTreasureSpawningDebugEnabled()) {
+                plugin.getLogger().info("Spawned " + rarity + " particles: " + plugin.getConfigManager().getRarityParticle(rarity) + 
+                    " (count: " + count + ", offset: " + offset + ")");
             }
         }
     }
@@ -188,18 +462,405 @@ public class TreasureManager {
     }
     
     public void removeTreasure(Treasure treasure) {
-        activeTreasures.remove(treasure.getId());
+        if (activeTreasures.remove(treasure.getId()) == null) {
+            return;
+        }
+        snapshotDirty = true;
+        touchChunk(treasure.getLocation());
+        
+        Location location = treasure.getLocation();
+        UUID worldId = location.getWorld().getUID();
+        
+        Map<Long, Treasure> blocks = treasuresByBlock.get(worldId);
+        if (blocks != null) {
+            // Only drop the entry if it still points at this treasure
+            blocks.remove(blockKey(location), treasure);
+            if (blocks.isEmpty()) {
+                treasuresByBlock.remove(worldId);
+            }
+        }
+        
+        Map<Long, Set<Treasure>> chunks = treasuresByChunk.get(worldId);
+        if (chunks != null) {
+            long chunkKey = chunkKey(location);
+            Set<Treasure> inChunk = chunks.get(chunkKey);
+            if (inChunk != null) {
+                inChunk.remove(treasure);
+                if (inChunk.isEmpty()) {
+                    chunks.remove(chunkKey);
+                }
+            }
+            if (chunks.isEmpty()) {
+                treasuresByChunk.remove(worldId);
+            }
+        }
     }
     
     public void addTreasure(Treasure treasure) {
+        Location location = treasure.getLocation();
+        UUID worldId = location.getWorld().getUID();
+        
+        Treasure previous = treasuresByBlock.computeIfAbsent(worldId, k -> new HashMap<>())
+            .put(blockKey(location), treasure);
+        if (previous != null && previous != treasure) {
+            // A new treasure took over this block, forget the old one along with its timer and hologram
+            activeTreasures.remove(previous.getId());
+            cancelDespawn(previous);
+            previous.removeHologram();
+            Set<Treasure> previousChunk = treasuresByChunk.getOrDefault(worldId, Collections.emptyMap()).get(chunkKey(location));
+            if (previousChunk != null) {
+                previousChunk.remove(previous);
+            }
+        }
+        
+        treasuresByChunk.computeIfAbsent(worldId, k -> new HashMap<>())
+            .computeIfAbsent(chunkKey(location), k -> new HashSet<>())
+            .add(treasure);
         activeTreasures.put(treasure.getId(), treasure);
+        snapshotDirty = true;
+        touchChunk(location);
+        
+        long ticksLeft = (treasure.getExpiresAt() - System.currentTimeMillis()) / 50L;
+        despawnTimers.put(treasure.getId(), despawnWheel.schedule(treasure, ticksLeft));
+        queueMaterializeStep(treasure);
     }
     
-    public void cleanupAllTreasures() {
-        for (Treasure treasure : new ArrayList<>(activeTreasures.values())) {
+    /**
+     * Queue the treasure's next barrel filling step for the next tick, dropping it once the treasure is gone
+     */
+    private void queueMaterializeStep(Treasure treasure) {
+        queueStep(() -> {
+            if (activeTreasures.get(treasure.getId()) == treasure && treasure.materializeStep()) {
+                queueMaterializeStep(treasure);
+            }
+        });
+    }
+    
+    private void queueStep(Runnable action) {
+        materializeQueue.add(new QueuedStep(action, System.nanoTime()));
+    }
+    
+    /**
+     * Get the number of materialization steps waiting to run
+     */
+    public int getMaterializeQueueDepth() {
+        return materializeQueue.size();
+    }
+    
+    /**
+     * Get how long the oldest waiting materialization step has been queued, in milliseconds
+     */
+    public long getMaterializeOldestWaitMillis() {
+        QueuedStep oldest = materializeQueue.peek();
+        return oldest != null ? (System.nanoTime() - oldest.queuedAt) / 1_000_000L : 0;
+    }
+    
+    /**
+     * Get the longest any materialization step has waited before running, in milliseconds
+     */
+    public long getMaterializeLongestWaitMillis() {
+        return longestMaterializeWaitNanos / 1_000_000L;
+    }
+    
+    /**
+     * Despawn a treasure whose time is up, or leave it for the next load of its chunk if that chunk is unloaded
+     */
+    private void expireTreasure(Treasure treasure) {
+        if (treasure.isChunkLoaded()) {
             treasure.despawn();
+            return;
+        }
+        
+        Location location = treasure.getLocation();
+        expiredInUnloadedChunks.computeIfAbsent(location.getWorld().getUID(), k -> new HashMap<>())
+            .computeIfAbsent(chunkKey(location), k -> new ArrayList<>())
+            .add(treasure);
+        
+        if (plugin.getConfigManager().isTreasureSpawningDebugEnabled()) {
+            plugin.getLogger().info("Deferred despawn of " + treasure.getRarity() + " treasure until its chunk loads");
+        }
+    }
+    
+    /**
+     * Show a joining player the holograms of the treasures they found
+     */
+    public void onPlayerJoin(Player player) {
+        UUID playerId = player.getUniqueId();
+        for (Treasure treasure : activeTreasures.values()) {
+            if (playerId.equals(treasure.getFinderId())) {
+                treasure.showHologramTo(player);
+            }
+        }
+    }
+    
+    /**
+     * Called when a chunk loads: despawn treasures that expired while it was unloaded, reattach restored
+     * treasures to their barrels, restore holograms and remove marked barrels nothing tracks any more
+     * (left behind by a crash). Done as one queued step per chunk rather than inside the load event.
+     */
+    public void onChunkLoad(Chunk chunk) {
+        World world = chunk.getWorld();
+        int chunkX = chunk.getX();
+        int chunkZ = chunk.getZ();
+        
+        List<Treasure> expired = null;
+        Map<Long, List<Treasure>> pending = expiredInUnloadedChunks.get(world.getUID());
+        if (pending != null) {
+            expired = pending.remove(Chunk.getChunkKey(chunkX, chunkZ));
+            if (pending.isEmpty()) {
+                expiredInUnloadedChunks.remove(world.getUID());
+            }
+        }
+        List<Block> orphans = null;
+        Set<Long> scanChunks = orphanScanChunks.get(world.getUID());
+        long chunkKey = Chunk.getChunkKey(chunkX, chunkZ);
+        if (scanChunks != null && scanChunks.contains(chunkKey) && canRemoveOrphans(world)) {
+            orphans = findOrphanBarrels(chunk);
+            if (orphans == null) {
+                forgetOrphanScan(world, chunkKey);
+            }
         }
+        if (expired == null && orphans == null && getTreasuresInChunk(world, chunkX, chunkZ).isEmpty()) {
+            return;
+        }
+        
+        List<Treasure> finalExpired = expired;
+        queueStep(() -> {
+            // Deferred again if the chunk unloaded before this ran
+            if (finalExpired != null) {
+                for (Treasure treasure : finalExpired) {
+                    expireTreasure(treasure);
+                }
+            }
+            if (!world.isChunkLoaded(chunkX, chunkZ)) {
+                return;
+            }
+            
+            for (Treasure treasure : new ArrayList<>(getTreasuresInChunk(world, chunkX, chunkZ))) {
+                if (treasure.reattach()) {
+                    treasure.restoreHologram();
+                } else {
+                    // The saved barrel is gone, forget the treasure
+                    removeTreasure(treasure);
+                    cancelDespawn(treasure);
+                }
+            }
+            
+            if (orphans != null && canRemoveOrphans(world)) {
+                for (Block block : orphans) {
+                    if (block.getType() == Material.BARREL && getTreasureAt(block) == null) {
+                        block.setType(Material.AIR);
+                        if (plugin.getConfigManager().isTreasureSpawningDebugEnabled()) {
+                            plugin.getLogger().info("Removed untracked treasure barrel at " + 
+                                block.getX() + "," + block.getY() + "," + block.getZ() + " in " + world.getName());
+                        }
+                    }
+                }
+                forgetOrphanScan(world, chunkKey);
+            }
+        });
+    }
+    
+    private void forgetOrphanScan(World world, long chunkKey) {
+        Set<Long> scanChunks = orphanScanChunks.get(world.getUID());
+        if (scanChunks != null && scanChunks.remove(chunkKey)) {
+            snapshotDirty = true;
+            if (scanChunks.isEmpty()) {
+                orphanScanChunks.remove(world.getUID());
+            }
+        }
+    }
+    
+    /**
+     * Untracked barrels are only removed once every saved treasure of their world has been restored
+     */
+    private boolean canRemoveOrphans(World world) {
+        return plugin.getConfigManager().isOrphanCleanupEnabled() && snapshotComplete 
+            && !pendingRestores.containsKey(world.getUID());
+    }
+    
+    /**
+     * Find barrels in a chunk that carry the treasure marker but belong to no tracked treasure; null if none
+     */
+    private List<Block> findOrphanBarrels(Chunk chunk) {
+        List<Block> orphans = null;
+        for (BlockState state : chunk.getTileEntities(block -> block.getType() == Material.BARREL, false)) {
+            if (state instanceof Barrel barrel 
+                    && barrel.getPersistentDataContainer().has(markerKey, PersistentDataType.STRING)
+                    && getTreasureAt(state.getBlock()) == null) {
+                if (orphans == null) {
+                    orphans = new ArrayList<>();
+                }
+                orphans.add(state.getBlock());
+            }
+        }
+        return orphans;
+    }
+    
+    /**
+     * Key of the marker stored on treasure barrels, holding the treasure id
+     */
+    public NamespacedKey getMarkerKey() {
+        return markerKey;
+    }
+    
+    /**
+     * Cancel a treasure's despawn timer, called when it despawns early
+     */
+    public void cancelDespawn(Treasure treasure) {
+        TimingWheel.Timer<Treasure> timer = despawnTimers.remove(treasure.getId());
+        if (timer != null) {
+            timer.cancel();
+        }
+    }
+    
+    /**
+     * Get the treasure occupying the given block, if any
+     */
+    public Treasure getTreasureAt(Block block) {
+        Map<Long, Treasure> blocks = treasuresByBlock.get(block.getWorld().getUID());
+        if (blocks == null) {
+            return null;
+        }
+        return blocks.get(Block.getBlockKey(block.getX(), block.getY(), block.getZ()));
+    }
+    
+    /**
+     * Get the treasure occupying the block at the given location, if any
+     */
+    public Treasure getTreasureAt(Location location) {
+        Map<Long, Treasure> blocks = treasuresByBlock.get(location.getWorld().getUID());
+        if (blocks == null) {
+            return null;
+        }
+        return blocks.get(blockKey(location));
+    }
+    
+    /**
+     * Get all treasures inside the given chunk
+     */
+    public Collection<Treasure> getTreasuresInChunk(World world, int chunkX, int chunkZ) {
+        Map<Long, Set<Treasure>> chunks = treasuresByChunk.get(world.getUID());
+        if (chunks == null) {
+            return Collections.emptySet();
+        }
+        Set<Treasure> inChunk = chunks.get(Chunk.getChunkKey(chunkX, chunkZ));
+        return inChunk != null ? Collections.unmodifiableSet(inChunk) : Collections.emptySet();
+    }
+    
+    /**
+     * Get the biome at a location, cached per biome cell when biome caching is enabled.
+     * Minecraft stores biomes per 4x4x4 cell, so every block in a cell shares one value.
+     */
+    private Biome getBiomeAt(Location location) {
+        World world = location.getWorld();
+        int x = location.getBlockX();
+        int y = location.getBlockY();
+        int z = location.getBlockZ();
+        
+        int minHeight = world.getMinHeight();
+        int layers = (world.getMaxHeight() - minHeight) >> 2;
+        int layer = (y - minHeight) >> 2;
+        if (!plugin.getConfigManager().isBiomeCacheEnabled() || layer < 0 || layer >= layers) {
+            return world.getBiome(x, y, z);
+        }
+        
+        // 16 cells per layer of a chunk: 4 along x by 4 along z
+        Biome[] chunkBiomes = biomeCache.computeIfAbsent(world.getUID(), k -> new HashMap<>())
+            .computeIfAbsent(chunkKey(location), k -> new Biome[layers << 4]);
+        int cell = (layer << 4) | (((z >> 2) & 3) << 2) | ((x >> 2) & 3);
+        Biome biome = chunkBiomes[cell];
+        if (biome == null) {
+            biome = world.getBiome(x, y, z);
+            chunkBiomes[cell] = biome;
+            
+            if (plugin.getConfigManager().isBiomeDetectionDebugEnabled()) {
+                plugin.getLogger().info("Cached biome " + biome.name() + " for cell " + (x >> 2) + "," + (y >> 2) + "," + (z >> 2) + 
+                    " in " + world.getName());
+            }
+        }
+        return biome;
+    }
+    
+    /**
+     * Forget cached biomes of a chunk, called when it unloads
+     */
+    public void invalidateBiomeCache(World world, int chunkX, int chunkZ) {
+        Map<Long, Biome[]> chunks = biomeCache.get(world.getUID());
+        if (chunks != null) {
+            chunks.remove(Chunk.getChunkKey(chunkX, chunkZ));
+        }
+    }
+    
+    /**
+     * Forget all cached biomes of a world, called when it unloads
+     */
+    public void invalidateBiomeCache(World world) {
+        biomeCache.remove(world.getUID());
+    }
+    
+    private static long blockKey(Location location) {
+        return Block.getBlockKey(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+    
+    private static long chunkKey(Location location) {
+        return Chunk.getChunkKey(location.getBlockX() >> 4, location.getBlockZ() >> 4);
+    }
+    
+    public void cleanupAllTreasures() {
+        // Stop the driver first, then fill every barrel that is still waiting in a loaded chunk
+        driver.cancel();
+        materializeQueue.clear();
+        pendingRecounts.clear();
+        finishMaterializing();
+        
+        if (plugin.getConfigManager().isTreasurePersistenceEnabled()) {
+            // Keep the barrels for the next start; holograms are not saved with chunks, so remove them now
+            saveSnapshot(true);
+            for (Treasure treasure : activeTreasures.values()) {
+                treasure.removeHologram();
+            }
+        } else {
+            for (Treasure treasure : new ArrayList<>(activeTreasures.values())) {
+                treasure.despawn();
+            }
+        }
+        store.close();
+        
         activeTreasures.clear();
+        pendingRestores.clear();
+        orphanScanChunks.clear();
+        touchedChunks.clear();
+        treasuresByBlock.clear();
+        treasuresByChunk.clear();
+        despawnWheel.clear();
+        despawnTimers.clear();
+        expiredInUnloadedChunks.clear();
+    }
+    
+    /**
+     * Get the number of treasure snapshot writes waiting to run
+     */
+    public int getSnapshotQueueDepth() {
+        return store.getQueuedTasks();
+    }
+    
+    /**
+     * Run the remaining filling steps of every treasure in a loaded chunk right away.
+     * Treasures in unloaded chunks cannot be filled and are not persisted.
+     */
+    private void finishMaterializing() {
+        for (Treasure treasure : new ArrayList<>(activeTreasures.values())) {
+            if (treasure.isFilled() || !treasure.isChunkLoaded()) {
+                continue;
+            }
+            // Each step in a loaded chunk advances the stage, so this ends after the last one
+            while (treasure.materializeStep()) {
+                if (!treasure.isChunkLoaded()) {
+                    break;
+                }
+            }
+        }
     }
     
     public Map<UUID, Treasure> getActiveTreasures() {
@@ -209,23 +870,18 @@ public class TreasureManager {
     /**
      * Check if a biome has a valid loot table for the given rarity
      */
-    private boolean hasValidLootTable(Biome biome, Rarity rarity) {
-        // Use the LootManager to check if this biome has valid loot configured
-        try {
-            // Check if biome category exists
-            if (plugin.getLootManager().getBiomeCategory(biome) == null) {
-                return false;
-            }
-            
-            // Try to get loot items for this biome and rarity
-            var lootItems = plugin.getLootManager().getAllLootItems(biome, rarity);
-            
-            // If we get a valid list with items, the biome has valid loot
-            return lootItems != null && !lootItems.isEmpty();
-        } catch (Exception e) {
-            // If any error occurs, assume no valid loot table
-            plugin.getLogger().warning("Error checking loot table for biome " + biome.name() + ": " + e.getMessage());
-            return false;
+    private boolean hasValidLootTable(LootManager.LootTables lootTables, Biome biome, Rarity rarity) {
+        // Answered from the per-biome rarity set built when loot tables are loaded
+        return plugin.getLootManager().hasLoot(lootTables, biome, rarity);
+    }
+    
+    private static final class QueuedStep {
+        private final Runnable action;
+        private final long queuedAt;
+        
+        private QueuedStep(Runnable action, long queuedAt) {
+            this.action = action;
+            this.queuedAt = queuedAt;
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,246 @@
+package me.itzrenzo.infernaltresures.managers;
+
+import me.itzrenzo.infernaltresures.InfernalTresures;
+import me.itzrenzo.infernaltresures.models.Treasure;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Compact snapshot of the active treasures (treasures.dat), so barrels survive a restart.
+ * The snapshot is written to a temporary file and moved over the old one, so a crash mid-write
+ * leaves the previous snapshot intact. It also lists the chunks that may hold treasure barrels
+ * nothing tracks, so only those are scanned for orphans on the next start.
+ */
+public class TreasureStore {
+    
+    private static final int VERSION = 2;
+    
+    private final InfernalTresures plugin;
+    private final File file;
+    private final File tempFile;
+    private final PersistenceExecutor executor;
+    // Latest snapshot the writer queue could not take, written on close if nothing newer was queued
+    private volatile Runnable unsaved;
+    
+    public TreasureStore(InfernalTresures plugin) {
+        this.plugin = plugin;
+        this.file = new File(plugin.getDataFolder(), "treasures.dat");
+        this.tempFile = new File(plugin.getDataFolder(), "treasures.dat.tmp");
+        this.executor = PersistenceExecutor.singleWriter(plugin, "Treasures");
+    }
+    
+    /**
+     * Read the saved treasures; a record cut short ends the snapshot and marks the result incomplete
+     */
+    public LoadResult load() {
+        List<Record> records = new ArrayList<>();
+        Map<UUID, Set<Long>> scanChunks = new HashMap<>();
+        if (!file.exists()) {
+            return new LoadResult(records, scanChunks, true);
+        }
+        
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            int version = in.readInt();
+            if (version != VERSION) {
+                plugin.getLogger().warning("Ignoring treasure snapshot with unknown version " + version);
+                return new LoadResult(records, scanChunks, false);
+            }
+            
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                UUID id = new UUID(in.readLong(), in.readLong());
+                UUID worldId = new UUID(in.readLong(), in.readLong());
+                int x = in.readInt();
+                int y = in.readInt();
+                int z = in.readInt();
+                String rarity = in.readUTF();
+                String biome = in.readUTF();
+                UUID finderId = in.readBoolean() ? new UUID(in.readLong(), in.readLong()) : null;
+                long expiresAt = in.readLong();
+                records.add(new Record(id, worldId, x, y, z, rarity, biome, finderId, expiresAt));
+            }
+            
+            int worlds = in.readInt();
+            for (int i = 0; i < worlds; i++) {
+                UUID worldId = new UUID(in.readLong(), in.readLong());
+                int chunks = in.readInt();
+                Set<Long> keys = new HashSet<>();
+                for (int j = 0; j < chunks; j++) {
+                    keys.add(in.readLong());
+                }
+                scanChunks.put(worldId, keys);
+            }
+        } catch (EOFException e) {
+            plugin.getLogger().warning("Treasure snapshot is truncated, restored " + records.size() + " treasures");
+            return new LoadResult(records, scanChunks, false);
+        } catch (IOException e) {
+            plugin.getLogger().severe("Error reading treasure snapshot: " + e.getMessage());
+            return new LoadResult(records, scanChunks, false);
+        }
+        
+        return new LoadResult(records, scanChunks, true);
+    }
+    
+    /**
+     * Replace the snapshot with the given treasures and orphan scan chunks on the writer thread.
+     * Returns false when the writer queue is full and the save should be tried again later.
+     */
+    public boolean saveAsync(List<Record> records, Map<UUID, Set<Long>> scanChunks) {
+        Runnable save = () -> write(records, scanChunks);
+        if (executor.runAsync(save).isCompletedExceptionally()) {
+            unsaved = save;
+            return false;
+        }
+        unsaved = null;
+        return true;
+    }
+    
+    /**
+     * Wait for pending writes to finish
+     */
+    public void close() {
+        executor.drain();
+        
+        // The writer has stopped, so a snapshot it could not take is written here
+        Runnable save = unsaved;
+        if (save != null) {
+            unsaved = null;
+            save.run();
+        }
+    }
+    
+    /**
+     * Get the number of snapshot writes waiting to run
+     */
+    public int getQueuedTasks() {
+        return executor.getQueuedTasks();
+    }
+    
+    private void write(List<Record> records, Map<UUID, Set<Long>> scanChunks) {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+            out.writeInt(VERSION);
+            out.writeInt(records.size());
+            for (Record record : records) {
+                out.writeLong(record.id.getMostSignificantBits());
+                out.writeLong(record.id.getLeastSignificantBits());
+                out.writeLong(record.worldId.getMostSignificantBits());
+                out.writeLong(record.worldId.getLeastSignificantBits());
+                out.writeInt(record.x);
+                out.writeInt(record.y);
+                out.writeInt(record.z);
+                out.writeUTF(record.rarity);
+                out.writeUTF(record.biome);
+                out.writeBoolean(record.finderId != null);
+                if (record.finderId != null) {
+                    out.writeLong(record.finderId.getMostSignificantBits());
+                    out.writeLong(record.finderId.getLeastSignificantBits());
+                }
+                out.writeLong(record.expiresAt);
+            }
+            
+            out.writeInt(scanChunks.size());
+            for (Map.Entry<UUID, Set<Long>> entry : scanChunks.entrySet()) {
+                out.writeLong(entry.getKey().getMostSignificantBits());
+                out.writeLong(entry.getKey().getLeastSignificantBits());
+                out.writeInt(entry.getValue().size());
+                for (long chunkKey : entry.getValue()) {
+                    out.writeLong(chunkKey);
+                }
+            }
+        } catch (IOException e) {
+            plugin.getLogger().severe("Error writing treasure snapshot: " + e.getMessage());
+            return;
+        }
+        
+        try {
+            try {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            plugin.getLogger().severe("Error replacing treasure snapshot: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Treasures read from the snapshot. Incomplete when the snapshot could not be read in full,
+     * in which case barrels missing from it may still belong to a saved treasure.
+     */
+    public static final class LoadResult {
+        private final List<Record> records;
+        private final Map<UUID, Set<Long>> scanChunks;
+        private final boolean complete;
+        
+        private LoadResult(List<Record> records, Map<UUID, Set<Long>> scanChunks, boolean complete) {
+            this.records = records;
+            this.scanChunks = scanChunks;
+            this.complete = complete;
+        }
+        
+        public List<Record> getRecords() { return records; }
+        public Map<UUID, Set<Long>> getScanChunks() { return scanChunks; }
+        public boolean isComplete() { return complete; }
+    }
+    
+    /**
+     * Saved state of one treasure; copied on the main thread so it can be written from the writer thread
+     */
+    public static final class Record {
+        private final UUID id;
+        private final UUID worldId;
+        private final int x;
+        private final int y;
+        private final int z;
+        private final String rarity;
+        private final String biome;
+        private final UUID finderId;
+        private final long expiresAt;
+        
+        private Record(UUID id, UUID worldId, int x, int y, int z, String rarity, String biome, UUID finderId, long expiresAt) {
+            this.id = id;
+            this.worldId = worldId;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.rarity = rarity;
+            this.biome = biome;
+            this.finderId = finderId;
+            this.expiresAt = expiresAt;
+        }
+        
+        public static Record of(Treasure treasure) {
+            return new Record(treasure.getId(), treasure.getLocation().getWorld().getUID(),
+                treasure.getLocation().getBlockX(), treasure.getLocation().getBlockY(), treasure.getLocation().getBlockZ(),
+                treasure.getRarity().name(), treasure.getBiome().name(), treasure.getFinderId(), treasure.getExpiresAt());
+        }
+        
+        public UUID getId() { return id; }
+        public UUID getWorldId() { return worldId; }
+        public int getX() { return x; }
+        public int getY() { return y; }
+        public int getZ() { return z; }
+        public String getRarity() { return rarity; }
+        public String getBiome() { return biome; }
+        public UUID getFinderId() { return finderId; }
+        public long getExpiresAt() { return expiresAt; }
+    }
+}
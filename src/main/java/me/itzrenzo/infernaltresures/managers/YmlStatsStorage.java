@@ -6,6 +6,11 @@ import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
@@ -18,16 +23,22 @@ public class YmlStatsStorage implements StatsStorage {
     
     private final InfernalTresures plugin;
     private final File statsFile;
+    private final File tempFile;
+    // Guards statsConfig, which is not thread-safe
+    private final Object lock = new Object();
+    private final PersistenceExecutor executor;
     private FileConfiguration statsConfig;
     
     public YmlStatsStorage(InfernalTresures plugin) {
         this.plugin = plugin;
         this.statsFile = new File(plugin.getDataFolder(), "stats.yml");
+        this.tempFile = new File(plugin.getDataFolder(), "stats.yml.tmp");
+        this.executor = PersistenceExecutor.singleWriter(plugin, "YML");
     }
     
     @Override
     public CompletableFuture<Void> initialize() {
-        return CompletableFuture.runAsync(() -> {
+        return executor.runAsync(() -> {
             if (!statsFile.exists()) {
                 try {
                     statsFile.createNewFile();
@@ -37,87 +48,121 @@ public class YmlStatsStorage implements StatsStorage {
                     throw new RuntimeException(e);
                 }
             }
-            statsConfig = YamlConfiguration.loadConfiguration(statsFile);
+            synchronized (lock) {
+                statsConfig = YamlConfiguration.loadConfiguration(statsFile);
+            }
         });
     }
     
     @Override
     public CompletableFuture<Void> close() {
-        return CompletableFuture.completedFuture(null); // No cleanup needed for YML
+        // Let queued writes finish; nothing else to clean up for YML
+        executor.drain();
+        return CompletableFuture.completedFuture(null);
     }
     
     @Override
     public CompletableFuture<StatsManager.PlayerStats> loadPlayerStats(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> {
-            if (statsConfig == null) return new StatsManager.PlayerStats();
-            
-            String uuidString = uuid.toString();
-            StatsManager.PlayerStats stats = new StatsManager.PlayerStats();
-            
-            stats.totalBlocksMined = statsConfig.getLong(uuidString + ".total-blocks-mined", 0);
-            stats.commonTreasuresFound = statsConfig.getLong(uuidString + ".common-treasures-found", 0);
-            stats.rareTreasuresFound = statsConfig.getLong(uuidString + ".rare-treasures-found", 0);
-            stats.epicTreasuresFound = statsConfig.getLong(uuidString + ".epic-treasures-found", 0);
-            stats.legendaryTreasuresFound = statsConfig.getLong(uuidString + ".legendary-treasures-found", 0);
-            stats.mythicTreasuresFound = statsConfig.getLong(uuidString + ".mythic-treasures-found", 0);
-            stats.minutesPlayed = statsConfig.getLong(uuidString + ".minutes-played", 0);
-            
-            // Load luck data
-            stats.luckEndTime = statsConfig.getLong(uuidString + ".luck-end-time", 0);
-            stats.luckMultiplier = statsConfig.getDouble(uuidString + ".luck-multiplier", 1.0);
-            stats.queuedLuckEndTime = statsConfig.getLong(uuidString + ".queued-luck-end-time", 0);
-            stats.queuedLuckMultiplier = statsConfig.getDouble(uuidString + ".queued-luck-multiplier", 1.0);
-            stats.treasureSpawningEnabled = statsConfig.getBoolean(uuidString + ".treasure-spawning-enabled", true);
-            
-            return stats;
+        return executor.supplyAsync(() -> {
+            synchronized (lock) {
+                if (statsConfig == null) return new StatsManager.PlayerStats();
+                return readStats(uuid.toString());
+            }
         });
     }
     
     @Override
     public CompletableFuture<Void> savePlayerStats(UUID uuid, StatsManager.PlayerStats stats) {
-        return CompletableFuture.runAsync(() -> {
-            if (statsConfig == null) return;
-            
-            String uuidString = uuid.toString();
-            
-            statsConfig.set(uuidString + ".total-blocks-mined", stats.totalBlocksMined);
-            statsConfig.set(uuidString + ".common-treasures-found", stats.commonTreasuresFound);
-            statsConfig.set(uuidString + ".rare-treasures-found", stats.rareTreasuresFound);
-            statsConfig.set(uuidString + ".epic-treasures-found", stats.epicTreasuresFound);
-            statsConfig.set(uuidString + ".legendary-treasures-found", stats.legendaryTreasuresFound);
-            statsConfig.set(uuidString + ".mythic-treasures-found", stats.mythicTreasuresFound);
-            statsConfig.set(uuidString + ".minutes-played", stats.minutesPlayed);
-            
-            // Save luck data
-            statsConfig.set(uuidString + ".luck-end-time", stats.luckEndTime);
-            statsConfig.set(uuidString + ".luck-multiplier", stats.luckMultiplier);
-            statsConfig.set(uuidString + ".queued-luck-end-time", stats.queuedLuckEndTime);
-            statsConfig.set(uuidString + ".queued-luck-multiplier", stats.queuedLuckMultiplier);
-            statsConfig.set(uuidString + ".treasure-spawning-enabled", stats.treasureSpawningEnabled);
-            
-            try {
-                statsConfig.save(statsFile);
-            } catch (IOException e) {
-                plugin.getLogger().severe("Failed to save stats.yml: " + e.getMessage());
-                throw new RuntimeException(e);
+        return executor.runAsync(() -> {
+            synchronized (lock) {
+                if (statsConfig == null) return;
+                
+                writeStats(uuid.toString(), stats);
+                writeFile();
             }
         });
     }
     
+    /**
+     * Read one player's section from the in-memory configuration
+     */
+    private StatsManager.PlayerStats readStats(String uuidString) {
+        StatsManager.PlayerStats stats = new StatsManager.PlayerStats();
+        
+        stats.setTotalBlocksMined(statsConfig.getLong(uuidString + ".total-blocks-mined", 0));
+        stats.setCommonTreasuresFound(statsConfig.getLong(uuidString + ".common-treasures-found", 0));
+        stats.setRareTreasuresFound(statsConfig.getLong(uuidString + ".rare-treasures-found", 0));
+        stats.setEpicTreasuresFound(statsConfig.getLong(uuidString + ".epic-treasures-found", 0));
+        stats.setLegendaryTreasuresFound(statsConfig.getLong(uuidString + ".legendary-treasures-found", 0));
+        stats.setMythicTreasuresFound(statsConfig.getLong(uuidString + ".mythic-treasures-found", 0));
+        stats.setMinutesPlayed(statsConfig.getLong(uuidString + ".minutes-played", 0));
+        
+        // Load luck data
+        stats.setLuckEndTime(statsConfig.getLong(uuidString + ".luck-end-time", 0));
+        stats.setLuckMultiplier(statsConfig.getDouble(uuidString + ".luck-multiplier", 1.0));
+        stats.setQueuedLuckEndTime(statsConfig.getLong(uuidString + ".queued-luck-end-time", 0));
+        stats.setQueuedLuckMultiplier(statsConfig.getDouble(uuidString + ".queued-luck-multiplier", 1.0));
+        stats.setTreasureSpawningEnabled(statsConfig.getBoolean(uuidString + ".treasure-spawning-enabled", true));
+        stats.setJournalSequence(statsConfig.getLong(uuidString + ".journal-seq", 0));
+        
+        return stats;
+    }
+    
+    /**
+     * Apply one player's stats to the in-memory configuration without touching disk
+     */
+    private void writeStats(String uuidString, StatsManager.PlayerStats stats) {
+        statsConfig.set(uuidString + ".total-blocks-mined", stats.getTotalBlocksMined());
+        statsConfig.set(uuidString + ".common-treasures-found", stats.getCommonTreasuresFound());
+        statsConfig.set(uuidString + ".rare-treasures-found", stats.getRareTreasuresFound());
+        statsConfig.set(uuidString + ".epic-treasures-found", stats.getEpicTreasuresFound());
+        statsConfig.set(uuidString + ".legendary-treasures-found", stats.getLegendaryTreasuresFound());
+        statsConfig.set(uuidString + ".mythic-treasures-found", stats.getMythicTreasuresFound());
+        statsConfig.set(uuidString + ".minutes-played", stats.getMinutesPlayed());
+        
+        // Save luck data
+        statsConfig.set(uuidString + ".luck-end-time", stats.getLuckEndTime());
+        statsConfig.set(uuidString + ".luck-multiplier", stats.getLuckMultiplier());
+        statsConfig.set(uuidString + ".queued-luck-end-time", stats.getQueuedLuckEndTime());
+        statsConfig.set(uuidString + ".queued-luck-multiplier", stats.getQueuedLuckMultiplier());
+        statsConfig.set(uuidString + ".treasure-spawning-enabled", stats.isTreasureSpawningEnabled());
+        statsConfig.set(uuidString + ".journal-seq", stats.getJournalSequence());
+    }
+    
+    /**
+     * Serialize the configuration once to a temp file and move it over stats.yml,
+     * so a crash mid-write never leaves a truncated stats file behind
+     */
+    private void writeFile() {
+        try {
+            Files.writeString(tempFile.toPath(), statsConfig.saveToString(), StandardCharsets.UTF_8);
+            Path target = statsFile.toPath();
+            try {
+                Files.move(tempFile.toPath(), target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile.toPath(), target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed to save stats.yml: " + e.getMessage());
+            throw new RuntimeException(e);
+        }
+    }
+    
     @Override
     public CompletableFuture<Map<UUID, StatsManager.PlayerStats>> loadAllPlayerStats() {
-        return CompletableFuture.supplyAsync(() -> {
+        return executor.supplyAsync(() -> {
             Map<UUID, StatsManager.PlayerStats> allStats = new HashMap<>();
             
-            if (statsConfig == null) return allStats;
-            
-            for (String uuidString : statsConfig.getKeys(false)) {
-                try {
-                    UUID uuid = UUID.fromString(uuidString);
-                    StatsManager.PlayerStats stats = loadPlayerStats(uuid).join();
-                    allStats.put(uuid, stats);
-                } catch (IllegalArgumentException e) {
-                    plugin.getLogger().warning("Invalid UUID in stats file: " + uuidString);
+            synchronized (lock) {
+                if (statsConfig == null) return allStats;
+                
+                for (String uuidString : statsConfig.getKeys(false)) {
+                    try {
+                        UUID uuid = UUID.fromString(uuidString);
+                        allStats.put(uuid, readStats(uuidString));
+                    } catch (IllegalArgumentException e) {
+                        plugin.getLogger().warning("Invalid UUID in stats file: " + uuidString);
+                    }
                 }
             }
             
@@ -128,12 +173,31 @@ public class YmlStatsStorage implements StatsStorage {
     
     @Override
     public CompletableFuture<Void> saveAllPlayerStats(Map<UUID, StatsManager.PlayerStats> allStats) {
-        return CompletableFuture.runAsync(() -> {
-            if (statsConfig == null) return;
-            
-            for (Map.Entry<UUID, StatsManager.PlayerStats> entry : allStats.entrySet()) {
-                savePlayerStats(entry.getKey(), entry.getValue()).join();
+        return executor.runAsync(() -> {
+            synchronized (lock) {
+                if (statsConfig == null || allStats.isEmpty()) return;
+                
+                // Apply every update in memory, then write the file once
+                for (Map.Entry<UUID, StatsManager.PlayerStats> entry : allStats.entrySet()) {
+                    writeStats(entry.getKey().toString(), entry.getValue());
+                }
+                writeFile();
+            }
+        });
+    }
+    
+    @Override
+    public CompletableFuture<Long> loadJournalSequence() {
+        return executor.supplyAsync(() -> {
+            long highest = 0;
+            synchronized (lock) {
+                if (statsConfig == null) return highest;
+                
+                for (String uuidString : statsConfig.getKeys(false)) {
+                    highest = Math.max(highest, statsConfig.getLong(uuidString + ".journal-seq", 0));
+                }
             }
+            return highest;
         });
     }
     
@@ -146,4 +210,9 @@ public class YmlStatsStorage implements StatsStorage {
     public String getStorageType() {
         return "YML";
     }
+    
+    @Override
+    public int getQueuedTasks() {
+        return executor.getQueuedTasks();
+    }
 }
\ No newline at end of file
@@ -2,69 +2,105 @@ package me.itzrenzo.infernaltresures.models;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.logging.Level;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.block.Barrel;
 import org.bukkit.block.Biome;
 import org.bukkit.block.Block;
-import org.bukkit.entity.ArmorStand;
-import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Display;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.TextDisplay;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.scheduler.BukkitTask;
+import org.bukkit.persistence.PersistentDataType;
 
 import me.itzrenzo.infernaltresures.InfernalTresures;
+import me.itzrenzo.infernaltresures.managers.LootManager;
+import me.itzrenzo.infernaltresures.managers.TreasureManager;
 import net.kyori.adventure.text.Component;
 
 public class Treasure {
+    // Stage reached once the barrel has been named and filled
+    private static final int MATERIALIZED = 3;
+    
     private final UUID id;
     private final Location location;
     private final Rarity rarity;
     private final Biome biome;
     private final UUID finderId;
-    private final BukkitTask despawnTask;
+    private final long expiresAt;
     private boolean claimed = false;
-    private ArmorStand hologram;
+    // Restored from the snapshot and not yet matched against its barrel
+    private boolean restored = false;
+    private TextDisplay hologram;
+    // Loot waiting to be put in the barrel, and how far filling has got
+    private List<ItemStack> pendingLoot;
+    private int materializeStage = 0;
+    // Occupied barrel slots, kept up to date from inventory events; assume loot until it is first counted
+    private int remainingItems = Integer.MAX_VALUE;
+    
+    public Treasure(Location location, Rarity rarity, Biome biome, Player finder) {
+        this(location, rarity, biome, finder, InfernalTresures.getInstance().getLootManager().getLootTables());
+    }
     
-    public Treasure(Location location, Rarity rarity, Biome biome, org.bukkit.entity.Player finder) {
+    /**
+     * Create a treasure whose loot is rolled from the given tables, the ones its spawn was checked against
+     */
+    public Treasure(Location location, Rarity rarity, Biome biome, Player finder, LootManager.LootTables lootTables) {
         this.id = UUID.randomUUID();
         this.location = location;
         this.rarity = rarity;
         this.biome = biome;
         this.finderId = finder != null ? finder.getUniqueId() : null;
+        this.expiresAt = System.currentTimeMillis() + rarity.getDespawnTime() * 1000L;
         
-        // Create the treasure barrel immediately
-        spawnTreasure(finder);
-        
-        // Schedule despawn
-        this.despawnTask = Bukkit.getScheduler().runTaskLater(
-            InfernalTresures.getInstance(), 
-            this::despawn, 
-            rarity.getDespawnTime() * 20L
-        );
+        // Create the treasure barrel immediately; despawn and filling are driven by the TreasureManager
+        spawnTreasure(finder, lootTables);
+    }
+    
+    /**
+     * Restore a saved treasure without touching the world; its barrel is checked by reattach() once its chunk loads
+     */
+    public Treasure(UUID id, Location location, Rarity rarity, Biome biome, UUID finderId, long expiresAt) {
+        this.id = id;
+        this.location = location;
+        this.rarity = rarity;
+        this.biome = biome;
+        this.finderId = finderId;
+        this.expiresAt = expiresAt;
+        this.restored = true;
+        this.materializeStage = MATERIALIZED;
     }
     
     public Treasure(Location location, Rarity rarity, Biome biome) {
         this(location, rarity, biome, null);
     }
     
-    private void spawnTreasure(org.bukkit.entity.Player finder) {
+    private void spawnTreasure(Player finder, LootManager.LootTables lootTables) {
         Block block = location.getBlock();
         block.setType(Material.BARREL);
+        // Marked in the same tick it is placed, so a saved chunk never holds an unmarked treasure barrel
+        if (block.getState() instanceof Barrel barrel) {
+            barrel.getPersistentDataContainer().set(
+                InfernalTresures.getInstance().getTreasureManager().getMarkerKey(), PersistentDataType.STRING, id.toString());
+            barrel.update(true, false);
+        }
         
         // Create hologram above the barrel (only if enabled for this rarity)
         if (InfernalTresures.getInstance().getConfigManager().isHologramEnabledForRarity(rarity)) {
-            createHologram();
+            createHologram(finder);
         }
         
         // Generate loot using the LootManager with progression support
         // Use UUID-based generation to ensure we get correct stats even if player goes offline
         List<ItemStack> loot;
         if (finderId != null) {
-            loot = InfernalTresures.getInstance().getLootManager().generateLootByUUID(biome, rarity, finderId);
+            loot = InfernalTresures.getInstance().getLootManager().generateLootByUUID(lootTables, biome, rarity, finderId);
         } else {
             // Fallback to regular method if no UUID (shouldn't happen in normal gameplay)
-            loot = InfernalTresures.getInstance().getLootManager().generateLoot(biome, rarity, finder);
+            loot = InfernalTresures.getInstance().getLootManager().generateLoot(lootTables, biome, rarity, finder);
         }
         
         if (InfernalTresures.getInstance().getConfigManager().isLootGenerationDebugEnabled()) {
@@ -75,42 +111,72 @@ public class Treasure {
             }
         }
         
-        // Use the working direct inventory approach with barrels
-        Bukkit.getScheduler().runTaskLater(InfernalTresures.getInstance(), () -> {
-            fillBarrelDirectly(location.getBlock(), loot);
-        }, 3L);
+        // Filled on later ticks through materializeStep()
+        this.pendingLoot = loot;
     }
     
-    private void createHologram() {
+    private void createHologram(Player finder) {
+        InfernalTresures plugin = InfernalTresures.getInstance();
+        
         // Get configurable hologram height
-        double hologramHeight = InfernalTresures.getInstance().getConfigManager().getHologramHeight();
+        double hologramHeight = plugin.getConfigManager().getHologramHeight();
+        boolean finderOnly = plugin.getConfigManager().isHologramFinderOnly();
+        Component hologramText = plugin.getMessageManager().getHologramText(rarity, biome);
         
-        // Create armor stand at configurable height above the barrel
+        // Text display at configurable height above the barrel; configured before it is added to the world
         Location hologramLocation = location.clone().add(0, hologramHeight, 0);
-        hologram = (ArmorStand) location.getWorld().spawnEntity(hologramLocation, EntityType.ARMOR_STAND);
+        hologram = location.getWorld().spawn(hologramLocation, TextDisplay.class, display -> {
+            display.text(hologramText);
+            display.setBillboard(Display.Billboard.CENTER);
+            // View range is a multiple of 64 blocks
+            display.setViewRange(plugin.getConfigManager().getHologramVisibleDistance() / 64f);
+            // Never saved with the chunk, the treasure owns its lifecycle
+            display.setPersistent(false);
+            display.setInvulnerable(true);
+            display.setVisibleByDefault(!finderOnly);
+        });
         
-        // Configure the armor stand as a hologram
-        hologram.setVisible(false);           
-        hologram.setGravity(false);          
-        hologram.setMarker(true);            
-        hologram.setSmall(true);             
-        hologram.setBasePlate(false);        
-        hologram.setArms(false);             
-        hologram.setCanPickupItems(false);   
-        hologram.setRemoveWhenFarAway(false); 
-        hologram.setInvulnerable(true);      
+        if (finderOnly && finder != null) {
+            finder.showEntity(plugin, hologram);
+        }
         
-        // Set the hologram text using MessageManager
-        Component hologramText = InfernalTresures.getInstance().getMessageManager().getHologramText(rarity, biome);
-        hologram.customName(hologramText);
-        hologram.setCustomNameVisible(true);
+        if (plugin.getConfigManager().isTreasureSpawningDebugEnabled()) {
+            plugin.getLogger().info("Created hologram for " + rarity + " treasure");
+        }
+    }
+    
+    /**
+     * Run the next barrel filling step; the TreasureManager calls this once per tick
+     * until it returns false. Steps: name the barrel, fill it, then verify (debug only).
+     */
+    public boolean materializeStep() {
+        if (materializeStage >= MATERIALIZED) {
+            return false;
+        }
+        
+        // Wait for the chunk rather than loading it
+        if (!isChunkLoaded()) {
+            return true;
+        }
         
-        if (InfernalTresures.getInstance().getConfigManager().isTreasureSpawningDebugEnabled()) {
-            InfernalTresures.getInstance().getLogger().info("Created hologram for " + rarity + " treasure");
+        Block barrelBlock = location.getBlock();
+        switch (materializeStage++) {
+            case 0:
+                nameBarrel(barrelBlock);
+                return true;
+            case 1:
+                fillBarrel(barrelBlock);
+                return InfernalTresures.getInstance().getConfigManager().isBarrelFillingDebugEnabled();
+            case 2:
+                verifyBarrel(barrelBlock);
+                materializeStage = MATERIALIZED;
+                return false;
+            default:
+                return false;
         }
     }
     
-    private void fillBarrelDirectly(Block barrelBlock, List<ItemStack> loot) {
+    private void nameBarrel(Block barrelBlock) {
         if (InfernalTresures.getInstance().getConfigManager().isBarrelFillingDebugEnabled()) {
             InfernalTresures.getInstance().getLogger().info("=== FILLING BARREL WITH SCATTERED ITEMS ===");
         }
@@ -121,8 +187,8 @@ public class Treasure {
         }
         
         try {
-            // First, set the barrel name using a separate approach
-            if (barrelBlock.getState() instanceof org.bukkit.block.Barrel barrel) {
+            // Set the barrel name a tick before filling
+            if (barrelBlock.getState() instanceof Barrel barrel) {
                 Component name = InfernalTresures.getInstance().getMessageManager().getTreasureNameComponent(rarity, biome);
                 barrel.customName(name);
                 barrel.update(true, false); // Update the barrel name only
@@ -130,93 +196,94 @@ public class Treasure {
                     InfernalTresures.getInstance().getLogger().info("Set barrel name to: " + InfernalTresures.getInstance().getMessageManager().getTreasureName(rarity, biome));
                 }
             }
+        } catch (Exception e) {
+            InfernalTresures.getInstance().getLogger().log(Level.SEVERE, "Direct barrel filling failed", e);
+        }
+    }
+    
+    private void fillBarrel(Block barrelBlock) {
+        List<ItemStack> loot = pendingLoot;
+        pendingLoot = null;
+        if (loot == null || barrelBlock.getType() != Material.BARREL) {
+            return;
+        }
+        
+        try {
+            // Get the inventory directly from the barrel
+            org.bukkit.inventory.Inventory inventory = ((org.bukkit.inventory.InventoryHolder) barrelBlock.getState()).getInventory();
+            
+            if (InfernalTresures.getInstance().getConfigManager().isBarrelFillingDebugEnabled()) {
+                InfernalTresures.getInstance().getLogger().info("Got barrel inventory directly: " + inventory.getClass().getSimpleName());
+            }
             
-            // Small delay to ensure the name is set before filling
-            Bukkit.getScheduler().runTaskLater(InfernalTresures.getInstance(), () -> {
-                try {
-                    // Get the inventory directly from the barrel
-                    org.bukkit.inventory.Inventory inventory = ((org.bukkit.inventory.InventoryHolder) barrelBlock.getState()).getInventory();
-                    
-                    if (InfernalTresures.getInstance().getConfigManager().isBarrelFillingDebugEnabled()) {
-                        InfernalTresures.getInstance().getLogger().info("Got barrel inventory directly: " + inventory.getClass().getSimpleName());
-                    }
-                    
-                    // Clear inventory
-                    inventory.clear();
-                    if (InfernalTresures.getInstance().getConfigManager().isBarrelFillingDebugEnabled()) {
-                        InfernalTresures.getInstance().getLogger().info("Cleared barrel inventory");
-                    }
-                    
-                    // Create a list of available slots (0-26 for barrel)
-                    java.util.List<Integer> availableSlots = new java.util.ArrayList<>();
-                    for (int i = 0; i < inventory.getSize(); i++) {
-                        availableSlots.add(i);
-                    }
-                    
-                    // Shuffle the available slots to create scattered placement
-                    java.util.Collections.shuffle(availableSlots);
-                    
-                    // Add items to random scattered slots
-                    for (int i = 0; i < loot.size() && i < availableSlots.size(); i++) {
-                        ItemStack item = loot.get(i);
-                        if (item != null && item.getType() != Material.AIR) {
-                            int randomSlot = availableSlots.get(i);
-                            inventory.setItem(randomSlot, item.clone());
-                            if (InfernalTresures.getInstance().getConfigManager().isBarrelFillingDebugEnabled()) {
-                                InfernalTresures.getInstance().getLogger().info("Scattered item to slot " + randomSlot + ": " + item.getType() + " x" + item.getAmount());
-                            }
-                        }
-                    }
-                    
-                    // Skip the update() call for inventory since it was causing the items to disappear
+            // Clear inventory
+            inventory.clear();
+            if (InfernalTresures.getInstance().getConfigManager().isBarrelFillingDebugEnabled()) {
+                InfernalTresures.getInstance().getLogger().info("Cleared barrel inventory");
+            }
+            
+            // Create a list of available slots (0-26 for barrel)
+            java.util.List<Integer> availableSlots = new java.util.ArrayList<>();
+            for (int i = 0; i < inventory.getSize(); i++) {
+                availableSlots.add(i);
+            }
+            
+            // Shuffle the available slots to create scattered placement
+            java.util.Collections.shuffle(availableSlots);
+            
+            // Add items to random scattered slots
+            int placed = 0;
+            for (int i = 0; i < loot.size() && i < availableSlots.size(); i++) {
+                ItemStack item = loot.get(i);
+                if (item != null && item.getType() != Material.AIR) {
+                    int randomSlot = availableSlots.get(i);
+                    inventory.setItem(randomSlot, item.clone());
+                    placed++;
                     if (InfernalTresures.getInstance().getConfigManager().isBarrelFillingDebugEnabled()) {
-                        InfernalTresures.getInstance().getLogger().info("Items scattered in barrel, skipping inventory update() call");
+                        InfernalTresures.getInstance().getLogger().info("Scattered item to slot " + randomSlot + ": " + item.getType() + " x" + item.getAmount());
                     }
-                    
-                    // Verification after a short delay
-                    Bukkit.getScheduler().runTaskLater(InfernalTresures.getInstance(), () -> {
-                        try {
-                            org.bukkit.inventory.Inventory checkInventory = ((org.bukkit.inventory.InventoryHolder) barrelBlock.getState()).getInventory();
-                            int itemCount = 0;
-                            
-                            if (InfernalTresures.getInstance().getConfigManager().isBarrelFillingDebugEnabled()) {
-                                InfernalTresures.getInstance().getLogger().info("=== BARREL VERIFICATION ===");
-                                
-                                // Check barrel name
-                                if (barrelBlock.getState() instanceof org.bukkit.block.Barrel checkBarrel) {
-                                    Component currentName = checkBarrel.customName();
-                                    InfernalTresures.getInstance().getLogger().info("Barrel name: " + (currentName != null ? "SET" : "NOT SET"));
-                                }
-                            }
-                            
-                            for (int i = 0; i < checkInventory.getSize(); i++) {
-                                ItemStack item = checkInventory.getItem(i);
-                                if (item != null && item.getType() != Material.AIR) {
-                                    itemCount++;
-                                    if (InfernalTresures.getInstance().getConfigManager().isBarrelFillingDebugEnabled()) {
-                                        InfernalTresures.getInstance().getLogger().info("Slot " + i + ": " + item.getType() + " x" + item.getAmount());
-                                    }
-                                }
-                            }
-                            
-                            if (InfernalTresures.getInstance().getConfigManager().isBarrelFillingDebugEnabled()) {
-                                InfernalTresures.getInstance().getLogger().info("=== BARREL CONTAINS: " + itemCount + " scattered items ===");
-                            }
-                        } catch (Exception e) {
-                            InfernalTresures.getInstance().getLogger().severe("Barrel verification failed: " + e.getMessage());
-                            e.printStackTrace();
-                        }
-                    }, 1L);
-                    
-                } catch (Exception e) {
-                    InfernalTresures.getInstance().getLogger().severe("Barrel inventory filling failed: " + e.getMessage());
-                    e.printStackTrace();
                 }
-            }, 1L); // Small delay before filling inventory
+            }
+            
+            remainingItems = placed;
+            
+            // Skip the update() call for inventory since it was causing the items to disappear
+            if (InfernalTresures.getInstance().getConfigManager().isBarrelFillingDebugEnabled()) {
+                InfernalTresures.getInstance().getLogger().info("Items scattered in barrel, skipping inventory update() call");
+            }
+        } catch (Exception e) {
+            InfernalTresures.getInstance().getLogger().log(Level.SEVERE, "Barrel inventory filling failed", e);
+        }
+    }
+    
+    private void verifyBarrel(Block barrelBlock) {
+        if (barrelBlock.getType() != Material.BARREL) {
+            return;
+        }
+        
+        try {
+            org.bukkit.inventory.Inventory checkInventory = ((org.bukkit.inventory.InventoryHolder) barrelBlock.getState()).getInventory();
+            int itemCount = 0;
+            
+            InfernalTresures.getInstance().getLogger().info("=== BARREL VERIFICATION ===");
+            
+            // Check barrel name
+            if (barrelBlock.getState() instanceof org.bukkit.block.Barrel checkBarrel) {
+                Component currentName = checkBarrel.customName();
+                InfernalTresures.getInstance().getLogger().info("Barrel name: " + (currentName != null ? "SET" : "NOT SET"));
+            }
+            
+            for (int i = 0; i < checkInventory.getSize(); i++) {
+                ItemStack item = checkInventory.getItem(i);
+                if (item != null && item.getType() != Material.AIR) {
+                    itemCount++;
+                    InfernalTresures.getInstance().getLogger().info("Slot " + i + ": " + item.getType() + " x" + item.getAmount());
+                }
+            }
             
+            InfernalTresures.getInstance().getLogger().info("=== BARREL CONTAINS: " + itemCount + " scattered items ===");
         } catch (Exception e) {
-            InfernalTresures.getInstance().getLogger().severe("Direct barrel filling failed: " + e.getMessage());
-            e.printStackTrace();
+            InfernalTresures.getInstance().getLogger().log(Level.SEVERE, "Barrel verification failed", e);
         }
     }
     
@@ -237,24 +304,120 @@ public class Treasure {
     }
     
     public void despawn() {
-        if (!claimed && location.getBlock().getType() == Material.BARREL) {
+        TreasureManager treasureManager = InfernalTresures.getInstance().getTreasureManager();
+        
+        // Leave the block alone if another treasure has since taken over this spot,
+        // and never touch it in an unloaded chunk since that would load the chunk
+        boolean ownsBlock = treasureManager.getTreasureAt(location) == this;
+        if (!claimed && ownsBlock && isChunkLoaded() && location.getBlock().getType() == Material.BARREL && reattach()) {
             // Check if items should drop when barrel despawns
             if (InfernalTresures.getInstance().getConfigManager().shouldDropItemsOnDespawn()) {
                 dropBarrelContents();
             }
             
             location.getBlock().setType(Material.AIR);
-            InfernalTresures.getInstance().getTreasureManager().removeTreasure(this);
         }
         
+        // Always release the registry entry, even if the barrel was already broken
+        treasureManager.removeTreasure(this);
+        
         // Remove hologram
+        removeHologram();
+        
+        treasureManager.cancelDespawn(this);
+    }
+    
+    /**
+     * Spawn the hologram again if it is gone, e.g. after its chunk was unloaded and loaded again
+     */
+    public void restoreHologram() {
+        Player finder = finderId != null ? Bukkit.getPlayer(finderId) : null;
+        if (hologram != null && hologram.isValid()) {
+            // The finder may have relogged since, which forgets a finder-only hologram
+            if (finder != null) {
+                showHologramTo(finder);
+            }
+            return;
+        }
+        if (InfernalTresures.getInstance().getConfigManager().isHologramEnabledForRarity(rarity)) {
+            createHologram(finder);
+        }
+    }
+    
+    /**
+     * Make the hologram visible to a player, needed again after every login when holograms are finder-only
+     */
+    public void showHologramTo(Player player) {
+        if (hologram != null && hologram.isValid()) {
+            player.showEntity(InfernalTresures.getInstance(), hologram);
+        }
+    }
+    
+    public void removeHologram() {
         if (hologram != null && !hologram.isDead()) {
             hologram.remove();
         }
+        hologram = null;
+    }
+    
+    /**
+     * Match a restored treasure to its barrel by the marker; returns false if the barrel is gone.
+     * Only call while the chunk is loaded.
+     */
+    public boolean reattach() {
+        if (!restored) {
+            return true;
+        }
         
-        if (despawnTask != null && !despawnTask.isCancelled()) {
-            despawnTask.cancel();
+        Block block = location.getBlock();
+        if (block.getType() != Material.BARREL || !(block.getState(false) instanceof Barrel barrel)) {
+            return false;
+        }
+        String marker = barrel.getPersistentDataContainer().get(
+            InfernalTresures.getInstance().getTreasureManager().getMarkerKey(), PersistentDataType.STRING);
+        if (!id.toString().equals(marker)) {
+            return false;
         }
+        
+        restored = false;
+        updateRemainingItems(barrel.getInventory());
+        return true;
+    }
+    
+    /**
+     * Recount the occupied slots of this treasure's barrel inventory
+     */
+    public int updateRemainingItems(org.bukkit.inventory.Inventory inventory) {
+        int count = 0;
+        for (ItemStack item : inventory.getStorageContents()) {
+            if (item != null && item.getType() != Material.AIR) {
+                count++;
+            }
+        }
+        remainingItems = count;
+        return count;
+    }
+    
+    /**
+     * Release an emptied treasure right away: remove the barrel and hologram and unregister it
+     */
+    public void release() {
+        TreasureManager treasureManager = InfernalTresures.getInstance().getTreasureManager();
+        if (!claimed && treasureManager.getTreasureAt(location) == this && isChunkLoaded() 
+                && location.getBlock().getType() == Material.BARREL) {
+            location.getBlock().setType(Material.AIR);
+        }
+        
+        // Claimed treasures leave the block alone on despawn
+        markClaimed();
+        despawn();
+    }
+    
+    /**
+     * Check whether the chunk holding this treasure is loaded, without loading it
+     */
+    public boolean isChunkLoaded() {
+        return location.getWorld().isChunkLoaded(location.getBlockX() >> 4, location.getBlockZ() >> 4);
     }
     
     /**
@@ -303,5 +466,9 @@ public class Treasure {
     public Location getLocation() { return location; }
     public Rarity getRarity() { return rarity; }
     public Biome getBiome() { return biome; }
+    public UUID getFinderId() { return finderId; }
+    public long getExpiresAt() { return expiresAt; }
     public boolean isClaimed() { return claimed; }
+    public boolean hasRemainingItems() { return remainingItems > 0; }
+    public boolean isFilled() { return materializeStage > 1; }
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+package me.itzrenzo.infernaltresures.utils;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class AliasTable {
+    private final double[] probability;
+    private final int[] alias;
+    
+    /**
+     * Build a Vose alias table over the given weights (negative weights count as zero)
+     */
+    public AliasTable(double[] weights) {
+        int size = weights.length;
+        double total = 0;
+        for (double weight : weights) {
+            total += Math.max(0, weight);
+        }
+        if (size == 0 || total <= 0) {
+            throw new IllegalArgumentException("Alias table needs at least one positive weight");
+        }
+        
+        this.probability = new double[size];
+        this.alias = new int[size];
+        
+        // Scale so the average column holds exactly 1
+        double[] scaled = new double[size];
+        int[] small = new int[size];
+        int[] large = new int[size];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < size; i++) {
+            scaled[i] = Math.max(0, weights[i]) * size / total;
+            if (scaled[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        
+        // Top up each underfull column with the remainder of an overfull one
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            
+            probability[less] = scaled[less];
+            alias[less] = more;
+            
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        
+        // Whatever is left is full, up to rounding error
+        while (largeCount > 0) {
+            probability[large[--largeCount]] = 1.0;
+        }
+        while (smallCount > 0) {
+            probability[small[--smallCount]] = 1.0;
+        }
+    }
+    
+    /**
+     * Draw one index with probability proportional to its weight
+     */
+    public int sample() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int column = random.nextInt(probability.length);
+        return random.nextDouble() < probability[column] ? column : alias[column];
+    }
+    
+    public int size() {
+        return probability.length;
+    }
+    
+    /**
+     * Draw up to count distinct indexes, weighted, without replacement (Efraimidis-Spirakis).
+     * Indexes with no weight are never picked, so fewer than count may come back.
+     */
+    public static int[] sampleWithoutReplacement(double[] weights, int count) {
+        if (count <= 0) {
+            return new int[0];
+        }
+        
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        // Min-heap of the best keys so far; key = log(u) / weight, which orders like u^(1 / weight)
+        PriorityQueue<double[]> best = new PriorityQueue<>(count, (a, b) -> Double.compare(a[0], b[0]));
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] <= 0) {
+                continue;
+            }
+            
+            double key = Math.log(1.0 - random.nextDouble()) / weights[i];
+            if (best.size() < count) {
+                best.add(new double[] {key, i});
+            } else if (key > best.peek()[0]) {
+                best.poll();
+                best.add(new double[] {key, i});
+            }
+        }
+        
+        int[] picked = new int[best.size()];
+        for (int i = picked.length - 1; i >= 0; i--) {
+            picked[i] = (int) best.poll()[1];
+        }
+        return picked;
+    }
+}
@@ -0,0 +1,126 @@
+package me.itzrenzo.infernaltresures.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel advanced one tick at a time.
+ * Level 0 has one slot per tick, each slot of a higher level spans a full turn of the level below,
+ * and timers cascade down a level when their slot comes around. Scheduling and cancelling are O(1).
+ */
+public class TimingWheel<T> {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    // Longest delay the wheels can hold (~9.7 days of ticks); longer timers wait at the top level and cascade again
+    private static final long MAX_SPAN = (1L << (SLOT_BITS * LEVELS)) - 1;
+    
+    // Flattened [level][slot]
+    private final List<List<Timer<T>>> slots = new ArrayList<>(LEVELS * SLOTS);
+    private long now;
+    
+    public TimingWheel() {
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            slots.add(new ArrayList<>());
+        }
+    }
+    
+    /**
+     * Schedule a value to expire after the given number of ticks (at least one)
+     */
+    public Timer<T> schedule(T value, long delayTicks) {
+        Timer<T> timer = new Timer<>(value, now + Math.max(1, delayTicks));
+        place(timer);
+        return timer;
+    }
+    
+    /**
+     * Move forward one tick and hand every value that is now due to the consumer
+     */
+    public void advance(Consumer<T> expired) {
+        now++;
+        
+        // Cascade every higher level whose slot just came around, top level first
+        for (int level = LEVELS - 1; level > 0; level--) {
+            if ((now & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+                continue;
+            }
+            for (Timer<T> timer : takeSlot(level)) {
+                if (!timer.cancelled) {
+                    place(timer);
+                }
+            }
+        }
+        
+        for (Timer<T> timer : takeSlot(0)) {
+            if (timer.cancelled) {
+                continue;
+            }
+            if (timer.deadline > now) {
+                place(timer);
+                continue;
+            }
+            timer.cancelled = true;
+            expired.accept(timer.value);
+        }
+    }
+    
+    /**
+     * Drop every pending timer
+     */
+    public void clear() {
+        for (List<Timer<T>> slot : slots) {
+            for (Timer<T> timer : slot) {
+                timer.cancelled = true;
+            }
+            slot.clear();
+        }
+    }
+    
+    private void place(Timer<T> timer) {
+        long delta = Math.min(Math.max(0, timer.deadline - now), MAX_SPAN);
+        
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        int slot = (int) ((now + delta) >>> (SLOT_BITS * level)) & SLOT_MASK;
+        slots.get(level * SLOTS + slot).add(timer);
+    }
+    
+    private List<Timer<T>> takeSlot(int level) {
+        List<Timer<T>> slot = slots.get(level * SLOTS + ((int) (now >>> (SLOT_BITS * level)) & SLOT_MASK));
+        if (slot.isEmpty()) {
+            return slot;
+        }
+        
+        // Copy out so timers scheduled while these run land in a fresh list
+        List<Timer<T>> taken = new ArrayList<>(slot);
+        slot.clear();
+        return taken;
+    }
+    
+    /**
+     * Handle to a scheduled value; cancelled timers are skipped lazily when their slot comes around
+     */
+    public static final class Timer<T> {
+        private final T value;
+        private final long deadline;
+        private boolean cancelled;
+        
+        private Timer(T value, long deadline) {
+            this.value = value;
+            this.deadline = deadline;
+        }
+        
+        public void cancel() {
+            cancelled = true;
+        }
+        
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}